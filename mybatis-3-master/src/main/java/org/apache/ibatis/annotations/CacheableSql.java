@@ -0,0 +1,75 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that the SQL returned by an SQL provider method can be cached.
+ * The provider method is then invoked, and its SQL parsed, once per cache key instead of on every execution.
+ *
+ * <p>
+ * The cache key is made of the type of the parameter object, the value returned by the {@link #keyMethod()}
+ * and the values of the {@link #properties()}. When neither is specified, the SQL must not depend on the parameter values.
+ * For example:
+ * <pre>
+ * public class UserSqlBuilder {
+ *   &#064;CacheableSql(properties = "orderBy")
+ *   public static String buildGetUsersByName(&#064;Param("name") String name, &#064;Param("orderBy") String orderBy) {
+ *     return new SQL() {{
+ *       SELECT("*");
+ *       FROM("users");
+ *       WHERE("name like #{name} || '%'");
+ *       ORDER_BY(orderBy);
+ *     }}.toString();
+ *   }
+ * }
+ * </pre>
+ *
+ * @since 3.5.2
+ * @see SelectProvider
+ * @see InsertProvider
+ * @see UpdateProvider
+ * @see DeleteProvider
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CacheableSql {
+
+  /**
+   * Specify the properties of the parameter object that the SQL depends on.
+   * When the mapper method has multiple arguments, these are the names of the arguments (e.g. <code>orderBy</code>),
+   * and a property of an argument can be specified too (e.g. <code>criteria.orderBy</code>).
+   *
+   * @return the properties that the SQL depends on
+   */
+  String[] properties() default {};
+
+  /**
+   * Specify a method of the provider type that returns a cache key.
+   * The method takes the same arguments as the provider method, and returns <code>null</code> when the SQL
+   * must not be cached for these arguments.
+   *
+   * @return a method name of method for providing a cache key
+   */
+  String keyMethod() default "";
+
+}
@@ -16,12 +16,14 @@
 package org.apache.ibatis.binding;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.session.SqlSession;
@@ -38,15 +40,31 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
   private final SqlSession sqlSession;
   private final Class<T> mapperInterface;
   private final Map<Method, MapperMethod> methodCache;
+  // 默认方法的 MethodHandle, 只解析一次
+  private final Map<Method, MethodHandle> defaultMethodCache;
 
   public MapperProxy(SqlSession sqlSession, Class<T> mapperInterface, Map<Method, MapperMethod> methodCache) {
+    this(sqlSession, mapperInterface, methodCache, new ConcurrentHashMap<>());
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public MapperProxy(SqlSession sqlSession, Class<T> mapperInterface, Map<Method, MapperMethod> methodCache,
+      Map<Method, MethodHandle> defaultMethodCache) {
     this.sqlSession = sqlSession;
     this.mapperInterface = mapperInterface;
     this.methodCache = methodCache;
+    this.defaultMethodCache = defaultMethodCache;
   }
 
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    // 已解析过的 mapper 方法直接执行, 不必再判断方法的种类
+    MapperMethod cachedMapperMethod = methodCache.get(method);
+    if (cachedMapperMethod != null) {
+      return cachedMapperMethod.execute(sqlSession, args);
+    }
     try {
       //方法如果是定义在Object 类中的（如equals()），则直接调用
       if (Object.class.equals(method.getDeclaringClass())) {
@@ -70,17 +88,29 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
 
   private Object invokeDefaultMethod(Object proxy, Method method, Object[] args)
       throws Throwable {
-    final Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class
-        .getDeclaredConstructor(Class.class, int.class);
-    if (!constructor.isAccessible()) {
-      constructor.setAccessible(true);
+    MethodHandle methodHandle = defaultMethodCache.get(method);
+    if (methodHandle == null) {
+      methodHandle = defaultMethodCache.computeIfAbsent(method, this::unreflectDefaultMethod);
+    }
+    return methodHandle.bindTo(proxy).invokeWithArguments(args);
+  }
+
+  private MethodHandle unreflectDefaultMethod(Method method) {
+    try {
+      final Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class
+          .getDeclaredConstructor(Class.class, int.class);
+      if (!constructor.isAccessible()) {
+        constructor.setAccessible(true);
+      }
+      final Class<?> declaringClass = method.getDeclaringClass();
+      return constructor
+          .newInstance(declaringClass,
+              MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED
+                  | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC)
+          .unreflectSpecial(method, declaringClass);
+    } catch (ReflectiveOperationException e) {
+      throw new BindingException("Could not resolve the default method '" + method + "'.  Cause: " + e, e);
     }
-    final Class<?> declaringClass = method.getDeclaringClass();
-    return constructor
-        .newInstance(declaringClass,
-            MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED
-                | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC)
-        .unreflectSpecial(method, declaringClass).bindTo(proxy).invokeWithArguments(args);
   }
 
   /**
@@ -15,13 +15,21 @@
  */
 package org.apache.ibatis.binding;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
+import org.apache.ibatis.builder.annotation.MapperIndexProcessor;
 import org.apache.ibatis.io.ResolverUtil;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
@@ -92,6 +100,14 @@ public class MapperRegistry {
    * @since 3.2.2
    */
   public void addMappers(String packageName, Class<?> superType) {
+    Set<Class<?>> indexedMappers = config.isMapperIndexEnabled() ? findIndexedMappers(packageName, superType) : null;
+    if (indexedMappers != null) {
+      // 编译时生成的索引中有这个包, 不必扫描类路径
+      for (Class<?> mapperClass : indexedMappers) {
+        addMapper(mapperClass);
+      }
+      return;
+    }
     ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
     resolverUtil.find(new ResolverUtil.IsA(superType), packageName);
     Set<Class<? extends Class<?>>> mapperSet = resolverUtil.getClasses();
@@ -107,4 +123,43 @@ public class MapperRegistry {
     addMappers(packageName, Object.class);
   }
 
+  /**
+   * Finds the mappers of a package in the indexes written by {@link MapperIndexProcessor}.
+   *
+   * @return the mappers, or <code>null</code> when the package is not indexed
+   */
+  private Set<Class<?>> findIndexedMappers(String packageName, Class<?> superType) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      return null;
+    }
+    String prefix = packageName + ".";
+    Set<Class<?>> mappers = null;
+    String name = null;
+    try {
+      Enumeration<URL> indexes = classLoader.getResources(MapperIndexProcessor.INDEX_RESOURCE);
+      while (indexes.hasMoreElements()) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+          while ((name = reader.readLine()) != null) {
+            name = name.trim();
+            if (name.startsWith(prefix)) {
+              if (mappers == null) {
+                mappers = new LinkedHashSet<>();
+              }
+              Class<?> type = classLoader.loadClass(name);
+              if (superType.isAssignableFrom(type)) {
+                mappers.add(type);
+              }
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new BindingException("Error reading the index of mappers. Cause: " + e, e);
+    } catch (ClassNotFoundException e) {
+      throw new BindingException("Could not load the mapper '" + name + "' of the index. Cause: " + e, e);
+    }
+    return mappers;
+  }
+
 }
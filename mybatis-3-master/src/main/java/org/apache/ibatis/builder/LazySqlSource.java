@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.function.Supplier;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * A {@link SqlSource} that builds the actual one the first time it is used.
+ * Statements can be registered at startup without parsing their SQL, which is done on their first execution
+ * or when {@link #build()} is called to warm them up. Errors in the SQL are thrown by the first build, not at startup.
+ *
+ * @since 3.5.2
+ * @see org.apache.ibatis.session.Configuration#buildLazySqlSources()
+ */
+public final class LazySqlSource implements SqlSource {
+
+  //创建实际 SqlSource 的方法，创建完成后置为 null 以释放其引用的 XML 节点
+  private Supplier<SqlSource> sqlSourceFactory;
+  private volatile SqlSource sqlSource;
+
+  public LazySqlSource(Supplier<SqlSource> sqlSourceFactory) {
+    this.sqlSourceFactory = sqlSourceFactory;
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    return build().getBoundSql(parameterObject);
+  }
+
+  /**
+   * Builds the actual {@link SqlSource} if it has not been built yet.
+   *
+   * @return the actual sql source
+   */
+  public SqlSource build() {
+    SqlSource built = sqlSource;
+    if (built == null) {
+      synchronized (this) {
+        built = sqlSource;
+        if (built == null) {
+          built = sqlSourceFactory.get();
+          sqlSource = built;
+          sqlSourceFactory = null;
+        }
+      }
+    }
+    return built;
+  }
+
+  public boolean isBuilt() {
+    return sqlSource != null;
+  }
+
+}
@@ -40,12 +40,146 @@ public class SqlSourceBuilder extends BaseBuilder {
   }
 
   public SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> additionalParameters) {
+    return parse(originalSql, parameterType, additionalParameters, configuration.isShrinkWhitespacesInSql());
+  }
+
+  /**
+   * @param shrinkWhitespaces whether to shrink the whitespaces of the SQL, see {@link #shrinkWhitespaces(String)}
+   * @since 3.5.2
+   */
+  public SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> additionalParameters, boolean shrinkWhitespaces) {
     ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, additionalParameters);
     GenericTokenParser parser = new GenericTokenParser("#{", "}", handler);
     String sql = parser.parse(originalSql);
+    if (shrinkWhitespaces) {
+      sql = shrinkWhitespaces(sql);
+    }
     return new StaticSqlSource(configuration, sql, handler.getParameterMappings());
   }
 
+  /**
+   * Builds a SqlSource for SQL whose parameters were already replaced by <code>?</code>.
+   *
+   * @param sql the SQL with a <code>?</code> per parameter
+   * @param parameters the contents of the <code>#{...}</code> parameters, in the order of their <code>?</code>
+   * @param parameterType the type of the parameter object
+   * @param additionalParameters the additional parameters
+   * @return the SqlSource
+   */
+  public SqlSource build(String sql, List<String> parameters, Class<?> parameterType, Map<String, Object> additionalParameters) {
+    return build(sql, parameters, parameterType, additionalParameters, configuration.isShrinkWhitespacesInSql());
+  }
+
+  /**
+   * @param shrinkWhitespaces whether to shrink the whitespaces of the SQL, see {@link #shrinkWhitespaces(String)}
+   * @since 3.5.2
+   */
+  public SqlSource build(String sql, List<String> parameters, Class<?> parameterType, Map<String, Object> additionalParameters, boolean shrinkWhitespaces) {
+    ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, additionalParameters);
+    for (String content : parameters) {
+      handler.handleToken(content);
+    }
+    return new StaticSqlSource(configuration, shrinkWhitespaces ? shrinkWhitespaces(sql) : sql, handler.getParameterMappings());
+  }
+
+  /**
+   * Collapses the whitespaces of an SQL into single spaces and removes its comments, outside of literals and quoted identifiers.
+   * Optimizer hints (<code>/*+ ... *&#47;</code>) and MySQL executable comments (<code>/*! ... *&#47;</code>) are kept.
+   * Whether a backslash escapes a quote in a literal depends on the database, so when a quote of a literal follows a backslash
+   * the rest of the SQL, from that literal on, is kept as is.
+   *
+   * @param sql an SQL
+   * @return the SQL without extra whitespaces and comments
+   * @since 3.5.2
+   */
+  public static String shrinkWhitespaces(String sql) {
+    final int length = sql.length();
+    final StringBuilder builder = new StringBuilder(length);
+    boolean whitespace = false;
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        whitespace = true;
+        i++;
+        continue;
+      }
+      int end;
+      if (c == '-' && sql.startsWith("-", i + 1)) {
+        end = sql.indexOf('\n', i);
+        i = end < 0 ? length : end + 1;
+        whitespace = true;
+        continue;
+      } else if (c == '/' && sql.startsWith("*", i + 1)) {
+        end = sql.indexOf("*/", i + 2);
+        end = end < 0 ? length : end + 2;
+        if (!sql.startsWith("+", i + 2) && !sql.startsWith("!", i + 2)) {
+          i = end;
+          whitespace = true;
+          continue;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        end = endOfQuote(sql, i, c);
+        if (end < 0) {
+          // cannot tell where the literal ends
+          end = length;
+        }
+      } else if (c == '$') {
+        end = endOfDollarQuote(sql, i);
+      } else {
+        end = i + 1;
+      }
+      if (whitespace && builder.length() > 0) {
+        builder.append(' ');
+      }
+      whitespace = false;
+      builder.append(sql, i, end);
+      i = end;
+    }
+    return builder.toString();
+  }
+
+  /**
+   * @return the index after the closing quote, or -1 when a quote of a literal follows a backslash
+   */
+  private static int endOfQuote(String sql, int start, char quote) {
+    for (int i = start + 1; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (c == quote) {
+        if (quote == '\'' && sql.charAt(i - 1) == '\\') {
+          // an escaped quote on MySQL, but the end of the literal in standard SQL
+          return -1;
+        }
+        // a doubled quote is part of the literal
+        if (i + 1 >= sql.length() || sql.charAt(i + 1) != quote) {
+          return i + 1;
+        }
+        i++;
+      }
+    }
+    return sql.length();
+  }
+
+  private static int endOfDollarQuote(String sql, int start) {
+    // PostgreSQL $tag$...$tag$, but not a $ in an identifier like V$SESSION
+    if (start > 0 && Character.isJavaIdentifierPart(sql.charAt(start - 1))) {
+      return start + 1;
+    }
+    int i = start + 1;
+    while (i < sql.length() && sql.charAt(i) != '$') {
+      if (!Character.isLetter(sql.charAt(i)) && sql.charAt(i) != '_' && (i == start + 1 || !Character.isDigit(sql.charAt(i)))) {
+        return start + 1;
+      }
+      i++;
+    }
+    if (i >= sql.length()) {
+      return start + 1;
+    }
+    String tag = sql.substring(start, i + 1);
+    int end = sql.indexOf(tag, i + 1);
+    return end < 0 ? sql.length() : end + tag.length();
+  }
+
   private static class ParameterMappingTokenHandler extends BaseBuilder implements TokenHandler {
 
     private List<ParameterMapping> parameterMappings = new ArrayList<>();
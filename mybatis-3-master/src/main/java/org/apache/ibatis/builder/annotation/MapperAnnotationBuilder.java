@@ -370,6 +370,8 @@ public class MapperAnnotationBuilder {
           useCache,
           // TODO gcode issue #577
           false,
+          // ResultOrderedBy
+          null,
           keyGenerator,
           keyProperty,
           keyColumn,
@@ -654,7 +656,7 @@ public class MapperAnnotationBuilder {
     SqlCommandType sqlCommandType = SqlCommandType.SELECT;
 
     assistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType, fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass, resultSetTypeEnum,
-        flushCache, useCache, false,
+        flushCache, useCache, false, null,
         keyGenerator, keyProperty, keyColumn, null, languageDriver, null);
 
     id = assistant.applyCurrentNamespace(id, false);
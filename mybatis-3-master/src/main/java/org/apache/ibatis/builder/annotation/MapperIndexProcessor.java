@@ -0,0 +1,246 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.DeleteProvider;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.SelectProvider;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.annotations.UpdateProvider;
+
+/**
+ * An annotation processor that validates the mapper interfaces of a module when it is compiled and writes their names
+ * to an index, so that {@link org.apache.ibatis.session.Configuration#addMappers(String)} loads them from the index
+ * instead of scanning the class path at startup.
+ * <p>
+ * A mapper interface is indexed when it is annotated with {@link Mapper} or has methods annotated with statement
+ * annotations like {@link Select}. Mapper interfaces that are only bound to XML must be annotated with {@link Mapper},
+ * or their packages must be given with the <code>mybatis.mapperPackages</code> option (comma separated). Once a
+ * package has an index and the <code>mapperIndexEnabled</code> setting is on, mappers that are not in the index are
+ * not found in that package.
+ * <p>
+ * This is a mapper index, not a precompilation of the mappers: only the names of the interfaces are written. The
+ * statements, result maps and SQL of the indexed mappers are still built by {@link MapperAnnotationBuilder} and the
+ * XML builders when the mappers are added, because they depend on the type handlers, type aliases, object factory
+ * and language drivers of the runtime {@link org.apache.ibatis.session.Configuration}. The index only saves the
+ * class path scan of <code>&lt;package&gt;</code> elements.
+ * <p>
+ * An incremental compilation keeps the entries of the existing index whose interfaces were not compiled again and
+ * still exist, so the index is not truncated to the interfaces of the last compilation.
+ * <p>
+ * The processor is not registered as a service, it has to be enabled with <code>-processor</code> or the
+ * annotation processor path of the build.
+ *
+ * @since 3.5.2
+ */
+@SupportedOptions(MapperIndexProcessor.MAPPER_PACKAGES_OPTION)
+public class MapperIndexProcessor extends AbstractProcessor {
+
+  public static final String MAPPER_PACKAGES_OPTION = "mybatis.mapperPackages";
+
+  /**
+   * The resource the binary names of the mapper interfaces are written to, one per line.
+   */
+  public static final String INDEX_RESOURCE = "META-INF/mybatis/mappers";
+
+  private static final List<Class<? extends Annotation>> STATEMENT_ANNOTATION_TYPES = Arrays.asList(
+      Select.class, Insert.class, Update.class, Delete.class,
+      SelectProvider.class, InsertProvider.class, UpdateProvider.class, DeleteProvider.class);
+
+  private final Set<String> mappers = new TreeSet<>();
+  // 本次编译的顶层类型, 旧索引中属于这些类型的条目以本次的结果为准
+  private final Set<String> compiledTypes = new HashSet<>();
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    // all root elements are needed to index the mapper packages
+    return Collections.singleton("*");
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+      return false;
+    }
+    for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+      compiledTypes.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+    }
+    for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Mapper.class))) {
+      if (type.getKind() == ElementKind.INTERFACE) {
+        addMapper(type);
+      }
+    }
+    Set<Element> statementMethods = new LinkedHashSet<>();
+    for (Class<? extends Annotation> annotationType : STATEMENT_ANNOTATION_TYPES) {
+      statementMethods.addAll(roundEnv.getElementsAnnotatedWith(annotationType));
+    }
+    for (Element method : statementMethods) {
+      validateStatementMethod(method);
+    }
+    Set<String> mapperPackages = getMapperPackages();
+    if (!mapperPackages.isEmpty()) {
+      for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+        addInterfacesInPackages(type, mapperPackages);
+      }
+    }
+    return false;
+  }
+
+  private void validateStatementMethod(Element method) {
+    Element type = method.getEnclosingElement();
+    if (type.getKind() != ElementKind.INTERFACE) {
+      error(method, "Statement annotations are only supported on methods of mapper interfaces.");
+      return;
+    }
+    int count = 0;
+    for (Class<? extends Annotation> annotationType : STATEMENT_ANNOTATION_TYPES) {
+      if (method.getAnnotation(annotationType) != null) {
+        count++;
+      }
+    }
+    if (count > 1) {
+      error(method, "Only one statement annotation of " + STATEMENT_ANNOTATION_TYPES + " is allowed on a mapper method.");
+      return;
+    }
+    addMapper((TypeElement) type);
+  }
+
+  private void addInterfacesInPackages(TypeElement type, Set<String> mapperPackages) {
+    if (type.getKind() == ElementKind.INTERFACE) {
+      String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+      for (String mapperPackage : mapperPackages) {
+        if (packageName.equals(mapperPackage) || packageName.startsWith(mapperPackage + ".")) {
+          addMapper(type);
+          break;
+        }
+      }
+    }
+    for (TypeElement nestedType : ElementFilter.typesIn(type.getEnclosedElements())) {
+      addInterfacesInPackages(nestedType, mapperPackages);
+    }
+  }
+
+  private Set<String> getMapperPackages() {
+    String option = processingEnv.getOptions().get(MAPPER_PACKAGES_OPTION);
+    Set<String> packages = new HashSet<>();
+    if (option != null) {
+      for (String mapperPackage : option.split(",")) {
+        if (!mapperPackage.trim().isEmpty()) {
+          packages.add(mapperPackage.trim());
+        }
+      }
+    }
+    return packages;
+  }
+
+  private void addMapper(TypeElement type) {
+    mappers.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+  }
+
+  private void writeIndex() {
+    Set<String> existingMappers = readExistingIndex();
+    if (existingMappers == null && mappers.isEmpty()) {
+      return;
+    }
+    if (existingMappers != null) {
+      for (String mapper : existingMappers) {
+        int nested = mapper.indexOf('$');
+        String topLevelType = nested < 0 ? mapper : mapper.substring(0, nested);
+        if (!compiledTypes.contains(topLevelType)
+            && processingEnv.getElementUtils().getTypeElement(mapper.replace('$', '.')) != null) {
+          mappers.add(mapper);
+        }
+      }
+    }
+    try {
+      FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+        for (String mapper : mappers) {
+          writer.write(mapper);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + INDEX_RESOURCE + ".  Cause: " + e);
+    }
+  }
+
+  /**
+   * Reads the index a previous compilation wrote to the class output.
+   *
+   * @return the mappers of the index, or <code>null</code> when there is no index
+   */
+  private Set<String> readExistingIndex() {
+    Set<String> existingMappers = new LinkedHashSet<>();
+    try {
+      FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            existingMappers.add(line.trim());
+          }
+        }
+      }
+    } catch (IOException e) {
+      // no index yet
+      return null;
+    }
+    return existingMappers;
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+}
@@ -19,10 +19,17 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Map;
 
+import org.apache.ibatis.annotations.CacheableSql;
 import org.apache.ibatis.annotations.Lang;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
@@ -33,6 +40,8 @@ import org.apache.ibatis.session.Configuration;
  */
 public class ProviderSqlSource implements SqlSource {
 
+  private static final int SQL_SOURCE_CACHE_SIZE = 64;
+
   private final Configuration configuration;
   private final Class<?> providerType;
   private final LanguageDriver languageDriver;
@@ -41,6 +50,10 @@ public class ProviderSqlSource implements SqlSource {
   private Class<?>[] providerMethodParameterTypes;
   private ProviderContext providerContext;
   private Integer providerContextIndex;
+  // the SqlSources created from the SQL of a @CacheableSql provider method
+  private Cache sqlSourceCache;
+  private Method cacheKeyMethod;
+  private String[] cacheKeyProperties;
 
   /**
    * @deprecated Please use the {@link #ProviderSqlSource(Configuration, Object, Class, Method)} instead of this.
@@ -102,6 +115,22 @@ public class ProviderSqlSource implements SqlSource {
         this.providerContextIndex = i;
       }
     }
+    CacheableSql cacheableSql = this.providerMethod.getAnnotation(CacheableSql.class);
+    if (cacheableSql != null) {
+      if (cacheableSql.keyMethod().length() > 0) {
+        try {
+          this.cacheKeyMethod = this.providerType.getMethod(cacheableSql.keyMethod(), this.providerMethodParameterTypes);
+        } catch (NoSuchMethodException e) {
+          throw new BuilderException("Error creating SqlSource for SqlProvider. Cache key method '"
+              + cacheableSql.keyMethod() + "' not found in SqlProvider '" + this.providerType.getName()
+              + "'. It must take the same arguments as the method '" + this.providerMethod.getName() + "'.");
+        }
+      }
+      this.cacheKeyProperties = cacheableSql.properties();
+      LruCache lruCache = new LruCache(new PerpetualCache(this.providerType.getName() + "." + this.providerMethod.getName()));
+      lruCache.setSize(SQL_SOURCE_CACHE_SIZE);
+      this.sqlSourceCache = new SynchronizedCache(lruCache);
+    }
   }
 
   @Override
@@ -112,28 +141,18 @@ public class ProviderSqlSource implements SqlSource {
 
   private SqlSource createSqlSource(Object parameterObject) {
     try {
-      int bindParameterCount = providerMethodParameterTypes.length - (providerContext == null ? 0 : 1);
-      String sql;
-      if (providerMethodParameterTypes.length == 0) {
-        sql = invokeProviderMethod();
-      } else if (bindParameterCount == 0) {
-        sql = invokeProviderMethod(providerContext);
-      } else if (bindParameterCount == 1
-           && (parameterObject == null || providerMethodParameterTypes[providerContextIndex == null || providerContextIndex == 1 ? 0 : 1].isAssignableFrom(parameterObject.getClass()))) {
-        sql = invokeProviderMethod(extractProviderMethodArguments(parameterObject));
-      } else if (parameterObject instanceof Map) {
-        @SuppressWarnings("unchecked")
-        Map<String, Object> params = (Map<String, Object>) parameterObject;
-        sql = invokeProviderMethod(extractProviderMethodArguments(params, providerMethodArgumentNames));
-      } else {
-        throw new BuilderException("Error invoking SqlProvider method ("
-                + providerType.getName() + "." + providerMethod.getName()
-                + "). Cannot invoke a method that holds "
-                + (bindParameterCount == 1 ? "named argument(@Param)" : "multiple arguments")
-                + " using a specifying parameterObject. In this case, please specify a 'java.util.Map' object.");
-      }
+      Object[] args = resolveProviderMethodArguments(parameterObject);
       Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-      return languageDriver.createSqlSource(configuration, sql, parameterType);
+      CacheKey cacheKey = sqlSourceCache == null ? null : createCacheKey(parameterObject, parameterType, args);
+      SqlSource sqlSource = cacheKey == null ? null : (SqlSource) sqlSourceCache.getObject(cacheKey);
+      if (sqlSource == null) {
+        String sql = invokeProviderMethod(args);
+        sqlSource = languageDriver.createSqlSource(configuration, sql, parameterType);
+        if (cacheKey != null) {
+          sqlSourceCache.putObject(cacheKey, sqlSource);
+        }
+      }
+      return sqlSource;
     } catch (BuilderException e) {
       throw e;
     } catch (Exception e) {
@@ -143,6 +162,51 @@ public class ProviderSqlSource implements SqlSource {
     }
   }
 
+  private Object[] resolveProviderMethodArguments(Object parameterObject) {
+    int bindParameterCount = providerMethodParameterTypes.length - (providerContext == null ? 0 : 1);
+    if (providerMethodParameterTypes.length == 0) {
+      return new Object[0];
+    } else if (bindParameterCount == 0) {
+      return new Object[] { providerContext };
+    } else if (bindParameterCount == 1
+         && (parameterObject == null || providerMethodParameterTypes[providerContextIndex == null || providerContextIndex == 1 ? 0 : 1].isAssignableFrom(parameterObject.getClass()))) {
+      return extractProviderMethodArguments(parameterObject);
+    } else if (parameterObject instanceof Map) {
+      @SuppressWarnings("unchecked")
+      Map<String, Object> params = (Map<String, Object>) parameterObject;
+      return extractProviderMethodArguments(params, providerMethodArgumentNames);
+    } else {
+      throw new BuilderException("Error invoking SqlProvider method ("
+              + providerType.getName() + "." + providerMethod.getName()
+              + "). Cannot invoke a method that holds "
+              + (bindParameterCount == 1 ? "named argument(@Param)" : "multiple arguments")
+              + " using a specifying parameterObject. In this case, please specify a 'java.util.Map' object.");
+    }
+  }
+
+  /**
+   * Creates the key of the SqlSource created from the SQL of a {@link CacheableSql} provider method,
+   * or returns <code>null</code> when the key method does not allow caching for these arguments.
+   */
+  private CacheKey createCacheKey(Object parameterObject, Class<?> parameterType, Object[] args) throws Exception {
+    CacheKey cacheKey = new CacheKey();
+    cacheKey.update(parameterType);
+    if (cacheKeyMethod != null) {
+      Object key = invokeMethod(cacheKeyMethod, args);
+      if (key == null) {
+        return null;
+      }
+      cacheKey.update(key);
+    }
+    if (cacheKeyProperties.length > 0) {
+      MetaObject metaObject = configuration.newMetaObject(parameterObject);
+      for (String property : cacheKeyProperties) {
+        cacheKey.update(metaObject.getValue(property));
+      }
+    }
+    return cacheKey;
+  }
+
   private Object[] extractProviderMethodArguments(Object parameterObject) {
     if (providerContext != null) {
       Object[] args = new Object[2];
@@ -167,12 +231,16 @@ public class ProviderSqlSource implements SqlSource {
   }
 
   private String invokeProviderMethod(Object... args) throws Exception {
+    CharSequence sql = (CharSequence) invokeMethod(providerMethod, args);
+    return sql != null ? sql.toString() : null;
+  }
+
+  private Object invokeMethod(Method method, Object... args) throws Exception {
     Object targetObject = null;
-    if (!Modifier.isStatic(providerMethod.getModifiers())) {
+    if (!Modifier.isStatic(method.getModifiers())) {
       targetObject = providerType.newInstance();
     }
-    CharSequence sql = (CharSequence) providerMethod.invoke(targetObject, args);
-    return sql != null ? sql.toString() : null;
+    return method.invoke(targetObject, args);
   }
 
 }
@@ -17,7 +17,13 @@ package org.apache.ibatis.builder.xml;
 
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
@@ -287,6 +293,16 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setAggressiveLazyLoading(booleanValueOf(props.getProperty("aggressiveLazyLoading"), false));
     configuration.setMultipleResultSetsEnabled(booleanValueOf(props.getProperty("multipleResultSetsEnabled"), true));
     configuration.setUseColumnLabel(booleanValueOf(props.getProperty("useColumnLabel"), true));
+    configuration.setUseColumnIndex(booleanValueOf(props.getProperty("useColumnIndex"), false));
+    configuration.setParallelRowMappingEnabled(booleanValueOf(props.getProperty("parallelRowMappingEnabled"), false));
+    configuration.setCompactMapRowsEnabled(booleanValueOf(props.getProperty("compactMapRowsEnabled"), false));
+    configuration.setResultSetMetaDataCacheEnabled(booleanValueOf(props.getProperty("resultSetMetaDataCacheEnabled"), false));
+    configuration.setCompiledDynamicSqlEnabled(booleanValueOf(props.getProperty("compiledDynamicSqlEnabled"), false));
+    configuration.setDynamicSqlCacheEnabled(booleanValueOf(props.getProperty("dynamicSqlCacheEnabled"), false));
+    configuration.setShrinkWhitespacesInSql(booleanValueOf(props.getProperty("shrinkWhitespacesInSql"), false));
+    configuration.setParallelMapperParsingEnabled(booleanValueOf(props.getProperty("parallelMapperParsingEnabled"), false));
+    configuration.setLazySqlSourceEnabled(booleanValueOf(props.getProperty("lazySqlSourceEnabled"), false));
+    configuration.setMapperIndexEnabled(booleanValueOf(props.getProperty("mapperIndexEnabled"), false));
     configuration.setUseGeneratedKeys(booleanValueOf(props.getProperty("useGeneratedKeys"), false));
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
@@ -408,47 +424,118 @@ public class XMLConfigBuilder extends BaseBuilder {
 
   private void mapperElement(XNode parent) throws Exception {
     if (parent != null) {
-      for (XNode child : parent.getChildren()) {
-        if ("package".equals(child.getName())) {
-          //获取<package> 节点的name属性
-          String mapperPackage = child.getStringAttribute("name");
-          //从指定包中查找mapper接口，并根据mapper接口解析映射配置
-          configuration.addMappers(mapperPackage);
-        } else {
-          //获取三个属性
-          String resource = child.getStringAttribute("resource");
-          String url = child.getStringAttribute("url");
-          String mapperClass = child.getStringAttribute("class");
-
-          //resource不为空且其他两者为空，则从指定路径中加载配置
-          if (resource != null && url == null && mapperClass == null) {
-            ErrorContext.instance().resource(resource);
-            InputStream inputStream = Resources.getResourceAsStream(resource);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
-            //解析映射文件
-            mapperParser.parse();
+      //开启并行解析时，先在 ForkJoinPool 中解析所有映射文件，再按声明顺序注册
+      final Map<String, ForkJoinTask<XPathParser>> mapperDocuments = parseMapperDocuments(parent);
+      try {
+        mapperElement(parent, mapperDocuments);
+      } finally {
+        for (ForkJoinTask<XPathParser> mapperDocument : mapperDocuments.values()) {
+          mapperDocument.cancel(false);
+        }
+      }
+    }
+  }
 
-            //url不为空，且其他两者为空，则通过url加载配置
-          } else if (resource == null && url != null && mapperClass == null) {
-            ErrorContext.instance().resource(url);
+  private void mapperElement(XNode parent, Map<String, ForkJoinTask<XPathParser>> mapperDocuments) throws Exception {
+    for (XNode child : parent.getChildren()) {
+      if ("package".equals(child.getName())) {
+        //获取<package> 节点的name属性
+        String mapperPackage = child.getStringAttribute("name");
+        //从指定包中查找mapper接口，并根据mapper接口解析映射配置
+        configuration.addMappers(mapperPackage);
+      } else {
+        //获取三个属性
+        String resource = child.getStringAttribute("resource");
+        String url = child.getStringAttribute("url");
+        String mapperClass = child.getStringAttribute("class");
+
+        //resource不为空且其他两者为空，则从指定路径中加载配置
+        if (resource != null && url == null && mapperClass == null) {
+          ErrorContext.instance().resource(resource);
+          ForkJoinTask<XPathParser> mapperDocument = mapperDocuments.get(resource);
+          XMLMapperBuilder mapperParser;
+          if (mapperDocument != null) {
+            mapperParser = new XMLMapperBuilder(joinMapperDocument(mapperDocument), configuration, resource, configuration.getSqlFragments());
+          } else {
+            InputStream inputStream = Resources.getResourceAsStream(resource);
+            mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+          }
+          //解析映射文件
+          mapperParser.parse();
+
+          //url不为空，且其他两者为空，则通过url加载配置
+        } else if (resource == null && url != null && mapperClass == null) {
+          ErrorContext.instance().resource(url);
+          ForkJoinTask<XPathParser> mapperDocument = mapperDocuments.get(url);
+          XMLMapperBuilder mapperParser;
+          if (mapperDocument != null) {
+            mapperParser = new XMLMapperBuilder(joinMapperDocument(mapperDocument), configuration, url, configuration.getSqlFragments());
+          } else {
             InputStream inputStream = Resources.getUrlAsStream(url);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
-            mapperParser.parse();
+            mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+          }
+          mapperParser.parse();
 
-            //mapperClass不为空，且其他两者为空，则通过 mapperClass 解析映射配置
-          } else if (resource == null && url == null && mapperClass != null) {
-            Class<?> mapperInterface = Resources.classForName(mapperClass);
-            configuration.addMapper(mapperInterface);
+          //mapperClass不为空，且其他两者为空，则通过 mapperClass 解析映射配置
+        } else if (resource == null && url == null && mapperClass != null) {
+          Class<?> mapperInterface = Resources.classForName(mapperClass);
+          configuration.addMapper(mapperInterface);
 
-            //条件不满足时直接抛异常
-          } else {
-            throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
-          }
+          //条件不满足时直接抛异常
+        } else {
+          throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
         }
       }
     }
   }
 
+  /**
+   * 开启 parallelMapperParsingEnabled 时，在 ForkJoinPool 中读取并解析通过 resource 或 url 指定的映射文件。
+   * 这里只生成 DOM，映射文件中的内容（包括 cache-ref、extends、include 等引用）仍在当前线程按声明顺序注册到 configuration 中。
+   * commonPool 线程的上下文类加载器是系统类加载器，所以 resource 用当前线程的上下文类加载器查找。
+   */
+  private Map<String, ForkJoinTask<XPathParser>> parseMapperDocuments(XNode parent) {
+    if (!configuration.isParallelMapperParsingEnabled()) {
+      return Collections.emptyMap();
+    }
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+    //key 为映射文件的 resource 或 url，与 configuration 中记录已加载资源的方式一致
+    final Map<String, ForkJoinTask<XPathParser>> mapperDocuments = new HashMap<>();
+    final Properties variables = configuration.getVariables();
+    final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    for (XNode child : parent.getChildren()) {
+      if ("package".equals(child.getName())) {
+        continue;
+      }
+      final String resource = child.getStringAttribute("resource");
+      final String url = child.getStringAttribute("url");
+      final String mapperClass = child.getStringAttribute("class");
+      if (resource != null && url == null && mapperClass == null) {
+        mapperDocuments.computeIfAbsent(resource, key -> pool.submit(() ->
+            new XPathParser(Resources.getResourceAsStream(classLoader, resource), true, variables, new XMLMapperEntityResolver())));
+      } else if (resource == null && url != null && mapperClass == null) {
+        mapperDocuments.computeIfAbsent(url, key -> pool.submit(() ->
+            new XPathParser(Resources.getUrlAsStream(url), true, variables, new XMLMapperEntityResolver())));
+      }
+    }
+    return mapperDocuments;
+  }
+
+  private XPathParser joinMapperDocument(ForkJoinTask<XPathParser> mapperDocument) throws Exception {
+    try {
+      return mapperDocument.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BuilderException("Interrupted while waiting for the mapper to be parsed.", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw new BuilderException("Error parsing mapper.  Cause: " + cause, cause);
+    }
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     if (environment == null) {
       throw new BuilderException("No environment specified.");
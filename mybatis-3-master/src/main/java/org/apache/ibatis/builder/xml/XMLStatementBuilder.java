@@ -19,6 +19,8 @@ import java.util.List;
 import java.util.Locale;
 
 import org.apache.ibatis.builder.BaseBuilder;
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.LazySqlSource;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
@@ -30,8 +32,10 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
+import org.w3c.dom.Document;
 
 /**
  * @author Clinton Begin
@@ -67,6 +71,7 @@ public class XMLStatementBuilder extends BaseBuilder {
     boolean flushCache = context.getBooleanAttribute("flushCache", !isSelect);
     boolean useCache = context.getBooleanAttribute("useCache", isSelect);
     boolean resultOrdered = context.getBooleanAttribute("resultOrdered", false);
+    String resultOrderedBy = context.getStringAttribute("resultOrderedBy");
 
     // Include Fragments before parsing
     XMLIncludeTransformer includeParser = new XMLIncludeTransformer(configuration, builderAssistant);
@@ -93,7 +98,7 @@ public class XMLStatementBuilder extends BaseBuilder {
           ? Jdbc3KeyGenerator.INSTANCE : NoKeyGenerator.INSTANCE;
     }
 
-    SqlSource sqlSource = langDriver.createSqlSource(configuration, context, parameterTypeClass);
+    SqlSource sqlSource = createSqlSource(id, langDriver, parameterTypeClass);
     StatementType statementType = StatementType.valueOf(context.getStringAttribute("statementType", StatementType.PREPARED.toString()));
     Integer fetchSize = context.getIntAttribute("fetchSize");
     Integer timeout = context.getIntAttribute("timeout");
@@ -109,10 +114,37 @@ public class XMLStatementBuilder extends BaseBuilder {
 
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
         fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
-        resultSetTypeEnum, flushCache, useCache, resultOrdered,
+        resultSetTypeEnum, flushCache, useCache, resultOrdered, resultOrderedBy,
         keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets);
   }
 
+  private SqlSource createSqlSource(String id, LanguageDriver langDriver, Class<?> parameterTypeClass) {
+    if (!configuration.isLazySqlSourceEnabled()) {
+      return langDriver.createSqlSource(configuration, context, parameterTypeClass);
+    }
+    // 只引用局部变量, 以免 LazySqlSource 通过 this 和 context 持有整个映射文件的 DOM
+    final Configuration configuration = this.configuration;
+    final String statementId = builderAssistant.applyCurrentNamespace(id, false);
+    final XNode statementNode = detachStatementNode();
+    return new LazySqlSource(() -> {
+      try {
+        return langDriver.createSqlSource(configuration, statementNode, parameterTypeClass);
+      } catch (RuntimeException e) {
+        throw new BuilderException("Error building SQL for statement '" + statementId + "'.  Cause: " + e, e);
+      }
+    });
+  }
+
+  /**
+   * 把语句节点 (已经处理了 include 和 selectKey) 复制到一个新文档中, 每个语句的文档相互独立, 构建时也不需要同步
+   */
+  private XNode detachStatementNode() {
+    Document document = context.getNode().getOwnerDocument().getImplementation().createDocument(null, null, null);
+    document.appendChild(document.importNode(context.getNode(), true));
+    return new XNode(new XPathParser(document, false, configuration.getVariables()), document.getDocumentElement(),
+        configuration.getVariables());
+  }
+
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
     List<XNode> selectKeyNodes = context.evalNodes("selectKey");
     if (configuration.getDatabaseId() != null) {
@@ -156,7 +188,7 @@ public class XMLStatementBuilder extends BaseBuilder {
 
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
         fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
-        resultSetTypeEnum, flushCache, useCache, resultOrdered,
+        resultSetTypeEnum, flushCache, useCache, resultOrdered, null,
         keyGenerator, keyProperty, keyColumn, databaseId, langDriver, null);
 
     id = builderAssistant.applyCurrentNamespace(id, false);
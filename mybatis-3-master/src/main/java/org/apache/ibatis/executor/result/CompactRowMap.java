@@ -0,0 +1,260 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A Map for result rows that only stores an array of values.
+ * The keys and their slots are kept in a {@link Shape} that is shared by all rows whose keys were put in the same order,
+ * so the rows of a result set share one key index.
+ * <p>
+ * All Map operations are supported. Removing a key, or adding a key when the shape cannot be extended,
+ * copies the row into a private {@link LinkedHashMap}. Keys are iterated in the order they were put.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class CompactRowMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private Shape shape;
+  private Object[] values;
+  private Map<K, V> delegate;
+
+  /**
+   * Creates an empty row.
+   *
+   * @param shape the shape to start from, usually a {@link Shape#Shape() root shape} shared by the rows of a result set
+   */
+  public CompactRowMap(Shape shape) {
+    this.shape = shape;
+    this.values = new Object[Math.max(shape.root.expectedSize, shape.size() + 1)];
+  }
+
+  @Override
+  public int size() {
+    return delegate != null ? delegate.size() : shape.size();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return delegate != null ? delegate.containsKey(key) : shape.indexOf(key) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (delegate != null) {
+      return delegate.get(key);
+    }
+    final int index = shape.indexOf(key);
+    return index < 0 ? null : (V) values[index];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    if (delegate != null) {
+      return delegate.put(key, value);
+    }
+    final int index = shape.indexOf(key);
+    if (index >= 0) {
+      final V previous = (V) values[index];
+      values[index] = value;
+      return previous;
+    }
+    final Shape next = shape.with(key);
+    if (next == null) {
+      return copyOnWrite().put(key, value);
+    }
+    if (values.length < next.size()) {
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    values[shape.size()] = value;
+    shape = next;
+    return null;
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (delegate == null && !containsKey(key)) {
+      return null;
+    }
+    return copyOnWrite().remove(key);
+  }
+
+  @Override
+  public void clear() {
+    if (delegate != null) {
+      delegate.clear();
+    } else if (shape.size() > 0) {
+      copyOnWrite().clear();
+    }
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return delegate != null ? delegate.entrySet() : new EntrySet();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<K, V> copyOnWrite() {
+    if (delegate == null) {
+      final Map<K, V> copy = new LinkedHashMap<>();
+      for (int i = 0; i < shape.size(); i++) {
+        copy.put((K) shape.keys[i], (V) values[i]);
+      }
+      delegate = copy;
+      shape = null;
+      values = null;
+    }
+    return delegate;
+  }
+
+  private Object writeReplace() {
+    return new LinkedHashMap<>(this);
+  }
+
+  private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+    @Override
+    public int size() {
+      return CompactRowMap.this.size();
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+      if (delegate != null) {
+        return delegate.entrySet().iterator();
+      }
+      // iterates a snapshot, so the row may be copied on write in the meantime
+      final Object[] keys = shape.keys;
+      final Object[] snapshot = values;
+      final int size = shape.size();
+      return new Iterator<Entry<K, V>>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+          if (next >= size) {
+            throw new NoSuchElementException();
+          }
+          final K key = (K) keys[next];
+          final int index = next++;
+          return new SimpleEntry<K, V>(key, (V) snapshot[index]) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public V getValue() {
+              return delegate != null ? delegate.get(key) : (V) values[index];
+            }
+
+            @Override
+            public V setValue(V value) {
+              super.setValue(value);
+              return CompactRowMap.this.put(key, value);
+            }
+          };
+        }
+
+        @Override
+        public void remove() {
+          if (next == 0) {
+            throw new IllegalStateException();
+          }
+          copyOnWrite().remove(keys[next - 1]);
+        }
+      };
+    }
+  }
+
+  /**
+   * The keys of a row and their slots. Shapes are immutable, and adding a key leads to a shared child shape,
+   * so rows that get the same keys in the same order end up with the same shape.
+   */
+  public static final class Shape {
+
+    // more keys or children than this go to a private map
+    private static final int MAX_KEYS = 256;
+    private static final int MAX_CHILDREN = 32;
+
+    private final Shape root;
+    private final Object[] keys;
+    private final Map<Object, Integer> indexes;
+    private final ConcurrentHashMap<Object, Shape> children = new ConcurrentHashMap<>();
+    // the largest number of keys seen below the root, used to size the values of new rows
+    private int expectedSize;
+
+    /**
+     * Creates a root shape without keys.
+     */
+    public Shape() {
+      this.root = this;
+      this.keys = new Object[0];
+      this.indexes = new HashMap<>();
+    }
+
+    private Shape(Shape parent, Object key) {
+      this.root = parent.root;
+      this.keys = Arrays.copyOf(parent.keys, parent.keys.length + 1);
+      this.keys[parent.keys.length] = key;
+      this.indexes = new HashMap<>(parent.indexes);
+      this.indexes.put(key, parent.keys.length);
+      if (root.expectedSize < keys.length) {
+        root.expectedSize = keys.length;
+      }
+    }
+
+    public int size() {
+      return keys.length;
+    }
+
+    int indexOf(Object key) {
+      final Integer index = indexes.get(key);
+      return index == null ? -1 : index;
+    }
+
+    Shape with(Object key) {
+      if (key == null || keys.length >= MAX_KEYS) {
+        return null;
+      }
+      final Shape child = children.get(key);
+      if (child != null || children.size() >= MAX_CHILDREN) {
+        return child;
+      }
+      return children.computeIfAbsent(key, k -> new Shape(this, k));
+    }
+  }
+
+}
@@ -15,21 +15,36 @@
  */
 package org.apache.ibatis.executor.resultset;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
@@ -39,6 +54,7 @@ import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.CompactRowMap;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
@@ -49,16 +65,27 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ArrayUtil;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.ColumnBatch;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.DoubleColumnReader;
+import org.apache.ibatis.type.IntColumnReader;
 import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.LongColumnReader;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -72,6 +99,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
 
+  // rows read from the ResultSet before they are handed to the parallel row mapping executor
+  private static final int PARALLEL_ROW_BATCH_SIZE = 256;
+  // values of these types depend on the connection and cannot be buffered
+  private static final Set<JdbcType> UNBUFFERED_JDBC_TYPES = EnumSet.of(JdbcType.ARRAY, JdbcType.STRUCT,
+      JdbcType.SQLXML, JdbcType.DATALINK, JdbcType.CURSOR);
+
   private final Executor executor;
   private final Configuration configuration;
   private final MappedStatement mappedStatement;
@@ -88,32 +121,75 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
+  // nested resultmaps sorted by the resultOrderedBy columns
+  private final List<Object> sortGroupRowValues = new ArrayList<>();
+  private final LinkedList<Object> releasedRowValues = new LinkedList<>();
+  private Object[] previousSortKey;
+  private int[] sortDirections;
+
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
-  // Cached Automappings
+  // Cached Automappings (shared ones are kept in Configuration#getAutoMappingCache)
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+  private final Map<Class<?>, ConstructorAutoMapping> constructorAutoMappingsCache = new HashMap<>();
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
+  // the keys shared by the rows of resultType="map"
+  private CompactRowMap.Shape mapRowShape;
+
+  // index of the current result set, part of the key of the cached result set meta data
+  private int resultSetIndex;
+
   private static class PendingRelation {
     public MetaObject metaObject;
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
+  static class UnMappedColumnAutoMapping {
     private final String column;
+    private final int columnIndex;
     private final String property;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
+    // 基本类型属性的 setter, 类型为 (Object, int/long/double)void, 值不必装箱
+    private final MethodHandle primitiveSetter;
+    private final Class<?> setterType;
+
+    public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive) {
+      this(column, columnIndex, property, typeHandler, primitive, null, null);
+    }
 
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive,
+        MethodHandle primitiveSetter, Class<?> setterType) {
       this.column = column;
+      this.columnIndex = columnIndex;
       this.property = property;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
+      this.primitiveSetter = primitiveSetter;
+      this.setterType = setterType;
+    }
+  }
+
+  /**
+   * The constructor chosen for a result type without a default constructor and the type handlers of its args,
+   * resolved once per column signature.
+   */
+  static class ConstructorAutoMapping {
+    private final CacheKey columnSignature;
+    private final Class<?>[] parameterTypes;
+    private final String[] columns;
+    private final TypeHandler<?>[] typeHandlers;
+
+    ConstructorAutoMapping(CacheKey columnSignature, Class<?>[] parameterTypes, String[] columns, TypeHandler<?>[] typeHandlers) {
+      this.columnSignature = columnSignature;
+      this.parameterTypes = parameterTypes;
+      this.columns = columns;
+      this.typeHandlers = typeHandlers;
     }
   }
 
@@ -247,7 +323,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+    resultSetIndex = 0;
+    return rs != null ? new ResultSetWrapper(rs, configuration, createResultSetMetaDataKey()) : null;
   }
 
   private ResultSetWrapper getNextResultSet(Statement stmt) {
@@ -260,7 +337,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           if (rs == null) {
             return getNextResultSet(stmt);
           } else {
-            return new ResultSetWrapper(rs, configuration);
+            resultSetIndex++;
+            return new ResultSetWrapper(rs, configuration, createResultSetMetaDataKey());
           }
         }
       }
@@ -270,6 +348,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return null;
   }
 
+  private CacheKey createResultSetMetaDataKey() {
+    if (!configuration.isResultSetMetaDataCacheEnabled() || boundSql == null) {
+      return null;
+    }
+    final CacheKey cacheKey = new CacheKey();
+    cacheKey.update(mappedStatement.getId());
+    cacheKey.update(boundSql.getSql());
+    cacheKey.update(resultSetIndex);
+    cacheKey.update(configuration.isUseColumnLabel());
+    return cacheKey;
+  }
+
   private void closeResultSet(ResultSet rs) {
     try {
       if (rs != null) {
@@ -282,6 +372,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    sortGroupRowValues.clear();
+    releasedRowValues.clear();
+    previousSortKey = null;
+    sortDirections = null;
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -298,10 +392,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       } else {
         if (resultHandler == null) {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
-          handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
+          handleAllRowValues(rsw, resultMap, defaultResultHandler);
           multipleResults.add(defaultResultHandler.getResultList());
         } else {
-          handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
+          handleAllRowValues(rsw, resultMap, resultHandler);
         }
       }
     } finally {
@@ -310,6 +404,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  private void handleAllRowValues(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler) throws SQLException {
+    if (ColumnBatch.class.equals(resultMap.getType())) {
+      handleColumnBatch(rsw, resultHandler, rowBounds);
+    } else if (isParallelRowMappingSupported(rsw, resultMap)) {
+      handleRowValuesInParallel(rsw, resultMap, resultHandler, rowBounds);
+    } else {
+      handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private List<Object> collapseSingleResultList(List<Object> multipleResults) {
     return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
@@ -323,7 +427,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (resultMap.hasNestedResultMaps()) {
       ensureNoRowBounds();
       checkResultHandler();
-      handleRowValuesForNestedResultMap(rsw, resultMap, resultHandler, rowBounds, parentMapping);
+      if (parentMapping == null && mappedStatement.getResultOrderedBy() != null) {
+        handleRowValuesForSortedNestedResultMap(rsw, resultMap, resultHandler, rowBounds);
+      } else {
+        handleRowValuesForNestedResultMap(rsw, resultMap, resultHandler, rowBounds, parentMapping);
+      }
     } else {
       handleRowValuesForSimpleResultMap(rsw, resultMap, resultHandler, rowBounds, parentMapping);
     }
@@ -337,10 +445,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   protected void checkResultHandler() {
-    if (resultHandler != null && configuration.isSafeResultHandlerEnabled() && !mappedStatement.isResultOrdered()) {
+    if (resultHandler != null && configuration.isSafeResultHandlerEnabled() && !mappedStatement.isResultOrdered()
+        && mappedStatement.getResultOrderedBy() == null) {
       throw new ExecutorException("Mapped Statements with nested result mappings cannot be safely used with a custom ResultHandler. "
           + "Use safeResultHandlerEnabled=false setting to bypass this check "
-          + "or ensure your statement returns ordered data and set resultOrdered=true on it.");
+          + "or ensure your statement returns ordered data and set resultOrdered=true or resultOrderedBy on it.");
     }
   }
 
@@ -356,6 +465,140 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  //
+  // HANDLE ROWS AS COLUMNS
+  //
+
+  private void handleColumnBatch(ResultSetWrapper rsw, ResultHandler<?> resultHandler, RowBounds rowBounds) throws SQLException {
+    final ResultSet resultSet = rsw.getResultSet();
+    skipRows(resultSet, rowBounds);
+    final ColumnBatch columnBatch = ColumnBatch.read(resultSet, rsw.getColumnNames(), rowBounds.getLimit());
+    callResultHandler(resultHandler, new DefaultResultContext<>(), columnBatch);
+  }
+
+  //
+  // HANDLE ROWS FOR SIMPLE RESULTMAP IN PARALLEL
+  //
+
+  private boolean isParallelRowMappingSupported(ResultSetWrapper rsw, ResultMap resultMap) {
+    if (!configuration.isParallelRowMappingEnabled()) {
+      return false;
+    }
+    for (JdbcType jdbcType : rsw.getJdbcTypes()) {
+      if (UNBUFFERED_JDBC_TYPES.contains(jdbcType)) {
+        return false;
+      }
+    }
+    return isParallelRowMappingSupported(resultMap, new HashSet<>());
+  }
+
+  private boolean isParallelRowMappingSupported(ResultMap resultMap, Set<String> checkedResultMaps) {
+    if (!checkedResultMaps.add(resultMap.getId())) {
+      return true;
+    }
+    // nested result maps, nested queries and multiple result sets need the state of a single handler
+    if (resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries()) {
+      return false;
+    }
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      if (resultMapping.getResultSet() != null) {
+        return false;
+      }
+    }
+    final Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator != null) {
+      for (String discriminatedMapId : discriminator.getDiscriminatorMap().values()) {
+        if (configuration.hasResultMap(discriminatedMapId)
+            && !isParallelRowMappingSupported(configuration.getResultMap(discriminatedMapId), checkedResultMaps)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void handleRowValuesInParallel(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds) throws SQLException {
+    final DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    final ResultSet resultSet = rsw.getResultSet();
+    final ResultSetMetaData metaData = resultSet.getMetaData();
+    final ExecutorService executor = configuration.getParallelRowMappingExecutor();
+    final int maxMappingTasks = Runtime.getRuntime().availableProcessors();
+    final Deque<Future<List<Object>>> mappingTasks = new ArrayDeque<>();
+    skipRows(resultSet, rowBounds);
+    try {
+      int rowsToRead = rowBounds.getLimit();
+      while (shouldProcessMoreRows(resultContext, rowBounds) && rowsToRead > 0) {
+        final List<Object[]> rows = readRows(rsw, Math.min(rowsToRead, PARALLEL_ROW_BATCH_SIZE));
+        if (rows.isEmpty()) {
+          break;
+        }
+        rowsToRead -= rows.size();
+        final ResultSetWrapper rowBuffer = new ResultSetWrapper(rsw, RowBuffer.newInstance(rsw, metaData, rows));
+        if (mappingTasks.isEmpty() && rows.size() < PARALLEL_ROW_BATCH_SIZE) {
+          // a single short batch is not worth handing over
+          storeMappedRows(mapRows(rowBuffer, resultMap), resultHandler, resultContext, rowBounds);
+          break;
+        }
+        mappingTasks.add(executor.submit(() -> mapRows(rowBuffer, resultMap)));
+        // keep the pool busy, but do not buffer the whole result set
+        if (mappingTasks.size() > maxMappingTasks) {
+          storeMappedRows(joinMappingTask(mappingTasks.poll()), resultHandler, resultContext, rowBounds);
+        }
+      }
+      while (!mappingTasks.isEmpty()) {
+        storeMappedRows(joinMappingTask(mappingTasks.poll()), resultHandler, resultContext, rowBounds);
+      }
+    } finally {
+      for (Future<List<Object>> mappingTask : mappingTasks) {
+        mappingTask.cancel(false);
+      }
+    }
+  }
+
+  private List<Object[]> readRows(ResultSetWrapper rsw, int maxRows) throws SQLException {
+    final ResultSet resultSet = rsw.getResultSet();
+    final int columnCount = rsw.getColumnNames().size();
+    final List<Object[]> rows = new ArrayList<>();
+    while (rows.size() < maxRows && !resultSet.isClosed() && resultSet.next()) {
+      rows.add(RowBuffer.readRow(resultSet, columnCount));
+    }
+    return rows;
+  }
+
+  private List<Object> mapRows(ResultSetWrapper rowBuffer, ResultMap resultMap) throws SQLException {
+    // a handler per batch, as handlers are not thread safe
+    final DefaultResultSetHandler rowMapper = new DefaultResultSetHandler(executor, mappedStatement, parameterHandler, null, boundSql, RowBounds.DEFAULT);
+    final DefaultResultHandler rowValues = new DefaultResultHandler();
+    rowMapper.handleRowValuesForSimpleResultMap(rowBuffer, resultMap, rowValues, RowBounds.DEFAULT, null);
+    return rowValues.getResultList();
+  }
+
+  private List<Object> joinMappingTask(Future<List<Object>> mappingTask) throws SQLException {
+    try {
+      return mappingTask.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while waiting for rows to be mapped.", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ExecutorException("Error mapping rows.  Cause: " + cause, cause);
+    }
+  }
+
+  private void storeMappedRows(List<Object> rowValues, ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, RowBounds rowBounds) {
+    for (Object rowValue : rowValues) {
+      if (!shouldProcessMoreRows(resultContext, rowBounds)) {
+        break;
+      }
+      callResultHandler(resultHandler, resultContext, rowValue);
+    }
+  }
+
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
       linkToParents(rs, parentMapping, rowValue);
@@ -426,19 +669,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    // the column attribute of a nested result map is ignored, its index is always 0
+    final int[] columnIndexes = rsw.getPropertyColumnIndexes(resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-    for (ResultMapping propertyMapping : propertyMappings) {
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      if (propertyMapping.getNestedResultMapId() != null) {
-        // the user added a column attribute to a nested result map, ignore it
-        column = null;
-      }
+    for (int i = 0; i < propertyMappings.size(); i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
       if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
+          || columnIndexes[i] > 0
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix, columnIndexes[i]);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -459,8 +699,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
-      throws SQLException {
+  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix,
+      int columnIndex) throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
@@ -469,13 +709,27 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getColumnValue(rs, typeHandler, column, columnIndex);
     }
   }
 
+  private Object getColumnValue(ResultSet rs, TypeHandler<?> typeHandler, String column, int columnIndex) throws SQLException {
+    if (columnIndex > 0 && configuration.isUseColumnIndex()) {
+      return typeHandler.getResult(rs, columnIndex);
+    }
+    return typeHandler.getResult(rs, column);
+  }
+
+  @SuppressWarnings("unchecked")
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
     final String mapKey = resultMap.getId() + ":" + columnPrefix;
     List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
+    if (autoMapping != null) {
+      return autoMapping;
+    }
+    final Cache autoMappingCache = configuration.getAutoMappingCache();
+    final CacheKey autoMappingKey = createAutoMappingKey(rsw, resultMap, metaObject, columnPrefix);
+    autoMapping = (List<UnMappedColumnAutoMapping>) autoMappingCache.getObject(autoMappingKey);
     if (autoMapping == null) {
       autoMapping = new ArrayList<>();
       final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
@@ -498,7 +752,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            final MethodHandle primitiveSetter = findPrimitiveSetter(metaObject, property, propertyType, typeHandler);
+            autoMapping.add(new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler, propertyType.isPrimitive(),
+                primitiveSetter, primitiveSetter == null ? null : metaObject.getOriginalObject().getClass()));
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
                 .doAction(mappedStatement, columnName, property, propertyType);
@@ -508,17 +764,37 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
         }
       }
-      autoMappingsCache.put(mapKey, autoMapping);
+      autoMapping = Collections.unmodifiableList(autoMapping);
+      autoMappingCache.putObject(autoMappingKey, autoMapping);
     }
+    autoMappingsCache.put(mapKey, autoMapping);
     return autoMapping;
   }
 
+  private CacheKey createAutoMappingKey(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) {
+    final CacheKey cacheKey = new CacheKey();
+    cacheKey.update(resultMap.getId());
+    cacheKey.update(columnPrefix);
+    cacheKey.update(metaObject.getOriginalObject().getClass());
+    // the settings below affect how unmapped columns are resolved
+    cacheKey.update(configuration.isMapUnderscoreToCamelCase());
+    cacheKey.update(configuration.getAutoMappingUnknownColumnBehavior());
+    cacheKey.update(rsw.getColumnSignature());
+    return cacheKey;
+  }
+
   private boolean applyAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
     List<UnMappedColumnAutoMapping> autoMapping = createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix);
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        if (mapping.primitiveSetter != null && mapping.setterType == metaObject.getOriginalObject().getClass()) {
+          if (applyPrimitiveAutomaticMapping(rsw.getResultSet(), mapping, metaObject.getOriginalObject())) {
+            foundValues = true;
+          }
+          continue;
+        }
+        final Object value = getColumnValue(rsw.getResultSet(), mapping.typeHandler, mapping.column, mapping.columnIndex);
         if (value != null) {
           foundValues = true;
         }
@@ -531,6 +807,90 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
+  /**
+   * Finds the setter of a primitive property that can be called with the primitive value of the type handler,
+   * or returns <code>null</code> when the value has to be boxed and set through the meta object.
+   */
+  private MethodHandle findPrimitiveSetter(MetaObject metaObject, String property, Class<?> propertyType, TypeHandler<?> typeHandler) {
+    if (!(propertyType == int.class && readsPrimitives(typeHandler, IntColumnReader.class, "getInt")
+        || propertyType == long.class && readsPrimitives(typeHandler, LongColumnReader.class, "getLong")
+        || propertyType == double.class && readsPrimitives(typeHandler, DoubleColumnReader.class, "getDouble"))) {
+      return null;
+    }
+    Object object = metaObject.getOriginalObject();
+    if (property.indexOf('.') >= 0 || object instanceof Map || object instanceof Collection
+        || metaObject.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class) {
+      return null;
+    }
+    Reflector reflector = reflectorFactory.findForClass(object.getClass());
+    Invoker invoker = reflector.hasSetter(property) ? reflector.getSetInvoker(property) : null;
+    if (!(invoker instanceof MethodInvoker)) {
+      return null;
+    }
+    Method method = ((MethodInvoker) invoker).getMethod();
+    if (method.getParameterTypes().length != 1 || method.getParameterTypes()[0] != propertyType) {
+      return null;
+    }
+    try {
+      return MethodHandles.publicLookup().unreflect(method).asType(MethodType.methodType(void.class, Object.class, propertyType));
+    } catch (IllegalAccessException e) {
+      // not public, the meta object sets it with reflection
+      return null;
+    }
+  }
+
+  /**
+   * The primitive reader is only used when it is declared with the methods that read boxed values,
+   * so that a subclass that reads values in another way is not bypassed.
+   */
+  private static boolean readsPrimitives(TypeHandler<?> typeHandler, Class<?> readerType, String readerMethod) {
+    if (!readerType.isInstance(typeHandler)) {
+      return false;
+    }
+    Class<?> type = typeHandler.getClass();
+    String boxedReaderMethod = typeHandler instanceof BaseTypeHandler ? "getNullableResult" : "getResult";
+    try {
+      Class<?> declaringClass = type.getMethod(readerMethod, ResultSet.class, String.class).getDeclaringClass();
+      return type.getMethod(boxedReaderMethod, ResultSet.class, String.class).getDeclaringClass() == declaringClass
+          && type.getMethod(boxedReaderMethod, ResultSet.class, int.class).getDeclaringClass() == declaringClass;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private boolean applyPrimitiveAutomaticMapping(ResultSet rs, UnMappedColumnAutoMapping mapping, Object target) throws SQLException {
+    final boolean useColumnIndex = mapping.columnIndex > 0 && configuration.isUseColumnIndex();
+    try {
+      if (mapping.typeHandler instanceof IntColumnReader) {
+        IntColumnReader reader = (IntColumnReader) mapping.typeHandler;
+        int value = useColumnIndex ? reader.getInt(rs, mapping.columnIndex) : reader.getInt(rs, mapping.column);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        mapping.primitiveSetter.invokeExact(target, value);
+      } else if (mapping.typeHandler instanceof LongColumnReader) {
+        LongColumnReader reader = (LongColumnReader) mapping.typeHandler;
+        long value = useColumnIndex ? reader.getLong(rs, mapping.columnIndex) : reader.getLong(rs, mapping.column);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        mapping.primitiveSetter.invokeExact(target, value);
+      } else {
+        DoubleColumnReader reader = (DoubleColumnReader) mapping.typeHandler;
+        double value = useColumnIndex ? reader.getDouble(rs, mapping.columnIndex) : reader.getDouble(rs, mapping.column);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        mapping.primitiveSetter.invokeExact(target, value);
+      }
+      return true;
+    } catch (SQLException e) {
+      throw new ResultMapException("Error attempting to get column '" + mapping.column + "' from result set.  Cause: " + e, e);
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + mapping.property + "' of '" + target.getClass() + "' Cause: " + t, t);
+    }
+  }
+
   // MULTIPLE RESULT SETS
 
   private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
@@ -612,6 +972,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return createPrimitiveResultObject(rsw, resultMap, columnPrefix);
     } else if (!constructorMappings.isEmpty()) {
       return createParameterizedResultObject(rsw, resultType, constructorMappings, constructorArgTypes, constructorArgs, columnPrefix);
+    } else if (resultType == Map.class && configuration.isCompactMapRowsEnabled()) {
+      if (mapRowShape == null) {
+        mapRowShape = new CompactRowMap.Shape();
+      }
+      return new CompactRowMap<>(mapRowShape);
     } else if (resultType.isInterface() || metaType.hasDefaultConstructor()) {
       return objectFactory.create(resultType);
     } else if (shouldApplyAutomaticMappings(resultMap, false)) {
@@ -648,34 +1013,63 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
-    final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
-    final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
-    if (defaultConstructor != null) {
-      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, defaultConstructor);
-    } else {
-      for (Constructor<?> constructor : constructors) {
-        if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
-          return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
-        }
-      }
-    }
-    throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
-  }
-
-  private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Constructor<?> constructor) throws SQLException {
+    final ConstructorAutoMapping constructorAutoMapping = getConstructorAutoMapping(rsw, resultType);
+    final Class<?>[] parameterTypes = constructorAutoMapping.parameterTypes;
     boolean foundValues = false;
-    for (int i = 0; i < constructor.getParameterTypes().length; i++) {
-      Class<?> parameterType = constructor.getParameterTypes()[i];
-      String columnName = rsw.getColumnNames().get(i);
-      TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
-      constructorArgTypes.add(parameterType);
+    for (int i = 0; i < parameterTypes.length; i++) {
+      Object value = getColumnValue(rsw.getResultSet(), constructorAutoMapping.typeHandlers[i], constructorAutoMapping.columns[i], i + 1);
+      constructorArgTypes.add(parameterTypes[i]);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
     }
     return foundValues ? objectFactory.create(resultType, constructorArgTypes, constructorArgs) : null;
   }
 
+  private ConstructorAutoMapping getConstructorAutoMapping(ResultSetWrapper rsw, Class<?> resultType) {
+    final CacheKey columnSignature = rsw.getColumnSignature();
+    ConstructorAutoMapping constructorAutoMapping = constructorAutoMappingsCache.get(resultType);
+    if (constructorAutoMapping != null && (constructorAutoMapping.columnSignature == columnSignature
+        || constructorAutoMapping.columnSignature.equals(columnSignature))) {
+      return constructorAutoMapping;
+    }
+    final Cache cache = configuration.getAutoMappingCache();
+    final CacheKey cacheKey = new CacheKey();
+    cacheKey.update(ConstructorAutoMapping.class);
+    cacheKey.update(resultType);
+    cacheKey.update(columnSignature);
+    constructorAutoMapping = (ConstructorAutoMapping) cache.getObject(cacheKey);
+    if (constructorAutoMapping == null) {
+      constructorAutoMapping = createConstructorAutoMapping(rsw, resultType);
+      cache.putObject(cacheKey, constructorAutoMapping);
+    }
+    constructorAutoMappingsCache.put(resultType, constructorAutoMapping);
+    return constructorAutoMapping;
+  }
+
+  private ConstructorAutoMapping createConstructorAutoMapping(ResultSetWrapper rsw, Class<?> resultType) {
+    final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
+    Constructor<?> constructor = findDefaultConstructor(constructors);
+    if (constructor == null) {
+      for (Constructor<?> candidate : constructors) {
+        if (allowedConstructorUsingTypeHandlers(candidate, rsw.getJdbcTypes())) {
+          constructor = candidate;
+          break;
+        }
+      }
+    }
+    if (constructor == null) {
+      throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
+    }
+    final Class<?>[] parameterTypes = constructor.getParameterTypes();
+    final String[] columns = new String[parameterTypes.length];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      columns[i] = rsw.getColumnNames().get(i);
+      typeHandlers[i] = rsw.getTypeHandler(parameterTypes[i], columns[i]);
+    }
+    return new ConstructorAutoMapping(rsw.getColumnSignature(), parameterTypes, columns, typeHandlers);
+  }
+
   private Constructor<?> findDefaultConstructor(final Constructor<?>[] constructors) {
     if (constructors.length == 1) {
       return constructors[0];
@@ -705,15 +1099,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private Object createPrimitiveResultObject(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
     final Class<?> resultType = resultMap.getType();
     final String columnName;
+    final int columnIndex;
     if (!resultMap.getResultMappings().isEmpty()) {
       final List<ResultMapping> resultMappingList = resultMap.getResultMappings();
       final ResultMapping mapping = resultMappingList.get(0);
       columnName = prependPrefix(mapping.getColumn(), columnPrefix);
+      columnIndex = rsw.getColumnIndex(columnName);
     } else {
       columnName = rsw.getColumnNames().get(0);
+      columnIndex = 1;
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getColumnValue(rsw.getResultSet(), typeHandler, columnName, columnIndex);
   }
 
   //
@@ -881,6 +1278,107 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  //
+  // HANDLE NESTED RESULT MAPS SORTED BY DECLARED COLUMNS
+  //
+
+  private void handleRowValuesForSortedNestedResultMap(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds) throws SQLException {
+    final DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    final ResultSet resultSet = rsw.getResultSet();
+    final int[] sortColumnIndexes = getSortColumnIndexes(rsw);
+    skipRows(resultSet, rowBounds);
+    // objects released by a previous call (e.g. a cursor) come first
+    storeReleasedObjects(resultHandler, resultContext, rowBounds, resultSet);
+    while (shouldProcessMoreRows(resultContext, rowBounds)) {
+      if (resultSet.isClosed() || !resultSet.next()) {
+        releaseSortGroup();
+        storeReleasedObjects(resultHandler, resultContext, rowBounds, resultSet);
+        break;
+      }
+      final Object[] sortKey = createSortKey(resultSet, sortColumnIndexes);
+      if (previousSortKey != null && isSortKeyChanged(sortKey)) {
+        // rows are sorted, so no row will refer to the objects of the previous sort group anymore
+        releaseSortGroup();
+      }
+      previousSortKey = sortKey;
+      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
+      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      final Object partialObject = nestedResultObjects.get(rowKey);
+      final Object rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
+      if (partialObject == null) {
+        sortGroupRowValues.add(rowValue);
+      }
+      storeReleasedObjects(resultHandler, resultContext, rowBounds, resultSet);
+    }
+  }
+
+  private int[] getSortColumnIndexes(ResultSetWrapper rsw) {
+    final String[] sortColumns = mappedStatement.getResultOrderedBy();
+    final int[] sortColumnIndexes = new int[sortColumns.length];
+    for (int i = 0; i < sortColumns.length; i++) {
+      sortColumnIndexes[i] = rsw.getColumnIndex(sortColumns[i].trim());
+      if (sortColumnIndexes[i] < 0) {
+        throw new ExecutorException("The resultOrderedBy column '" + sortColumns[i].trim() + "' of mapped statement '"
+            + mappedStatement.getId() + "' was not found in the result set " + rsw.getColumnNames() + ".");
+      }
+    }
+    return sortColumnIndexes;
+  }
+
+  private Object[] createSortKey(ResultSet rs, int[] sortColumnIndexes) throws SQLException {
+    final Object[] sortKey = new Object[sortColumnIndexes.length];
+    for (int i = 0; i < sortColumnIndexes.length; i++) {
+      sortKey[i] = rs.getObject(sortColumnIndexes[i]);
+    }
+    return sortKey;
+  }
+
+  private boolean isSortKeyChanged(Object[] sortKey) {
+    for (int i = 0; i < sortKey.length; i++) {
+      if (!ArrayUtil.equals(previousSortKey[i], sortKey[i])) {
+        verifySortDirection(i, previousSortKey[i], sortKey[i]);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Verifies that the values of the first changed sort column keep moving in the same direction.
+   * Character values are not verified because their order depends on the collation of the database.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private void verifySortDirection(int column, Object previous, Object current) {
+    if (!(previous instanceof Comparable) || previous instanceof String
+        || current == null || previous.getClass() != current.getClass()) {
+      return;
+    }
+    if (sortDirections == null) {
+      sortDirections = new int[previousSortKey.length];
+    }
+    final int direction = Integer.signum(((Comparable) current).compareTo(previous));
+    if (sortDirections[column] == 0) {
+      sortDirections[column] = direction;
+    } else if (direction != 0 && sortDirections[column] != direction) {
+      throw new ExecutorException("The rows of mapped statement '" + mappedStatement.getId()
+          + "' are not sorted by the resultOrderedBy column '" + mappedStatement.getResultOrderedBy()[column].trim()
+          + "'. Found value '" + current + "' after '" + previous + "'.");
+    }
+  }
+
+  private void releaseSortGroup() {
+    releasedRowValues.addAll(sortGroupRowValues);
+    sortGroupRowValues.clear();
+    nestedResultObjects.clear();
+  }
+
+  private void storeReleasedObjects(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, RowBounds rowBounds, ResultSet rs)
+      throws SQLException {
+    while (!releasedRowValues.isEmpty() && shouldProcessMoreRows(resultContext, rowBounds)) {
+      storeObject(resultHandler, resultContext, releasedRowValues.removeFirst(), null, rs);
+    }
+  }
+
   //
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
@@ -26,8 +26,11 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.ObjectTypeHandler;
@@ -42,24 +45,65 @@ public class ResultSetWrapper {
 
   private final ResultSet resultSet;
   private final TypeHandlerRegistry typeHandlerRegistry;
-  private final List<String> columnNames = new ArrayList<>();
-  private final List<String> classNames = new ArrayList<>();
-  private final List<JdbcType> jdbcTypes = new ArrayList<>();
+  private final Columns columns;
+  private final List<String> columnNames;
+  private final List<String> classNames;
+  private final List<JdbcType> jdbcTypes;
+  private final Map<String, Integer> columnIndexMap;
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final Map<String, int[]> propertyColumnIndexesMap = new HashMap<>();
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
+    this(rs, configuration, null);
+  }
+
+  /**
+   * Creates a wrapper that reuses the column information of a previous execution
+   * when it is found in {@link Configuration#getResultSetMetaDataCache()} and has the same number of columns.
+   *
+   * @param rs the ResultSet to wrap
+   * @param configuration the configuration
+   * @param metaDataCacheKey the key of the column information, or <code>null</code> to always read the meta data
+   * @throws SQLException if the meta data cannot be read
+   */
+  ResultSetWrapper(ResultSet rs, Configuration configuration, CacheKey metaDataCacheKey) throws SQLException {
     super();
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.resultSet = rs;
     final ResultSetMetaData metaData = rs.getMetaData();
     final int columnCount = metaData.getColumnCount();
-    for (int i = 1; i <= columnCount; i++) {
-      columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
-      jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
-      classNames.add(metaData.getColumnClassName(i));
+    final Cache metaDataCache = configuration.getResultSetMetaDataCache();
+    Columns cachedColumns = metaDataCacheKey == null ? null : (Columns) metaDataCache.getObject(metaDataCacheKey);
+    if (cachedColumns == null || cachedColumns.columnNames.size() != columnCount) {
+      cachedColumns = new Columns(metaData, columnCount, configuration.isUseColumnLabel());
+      if (metaDataCacheKey != null) {
+        metaDataCache.putObject(metaDataCacheKey, cachedColumns);
+      }
     }
+    this.columns = cachedColumns;
+    this.columnNames = columns.columnNames;
+    this.classNames = columns.classNames;
+    this.jdbcTypes = columns.jdbcTypes;
+    this.columnIndexMap = columns.columnIndexMap;
+  }
+
+  /**
+   * Creates a wrapper of another ResultSet with the same columns, e.g. a buffer of rows read from the original ResultSet.
+   * The column information is shared, the caches of mapped columns and type handlers are not.
+   *
+   * @param rsw the wrapper to copy the column information from
+   * @param rs the ResultSet to wrap
+   */
+  ResultSetWrapper(ResultSetWrapper rsw, ResultSet rs) {
+    this.typeHandlerRegistry = rsw.typeHandlerRegistry;
+    this.resultSet = rs;
+    this.columns = rsw.columns;
+    this.columnNames = rsw.columnNames;
+    this.classNames = rsw.classNames;
+    this.jdbcTypes = rsw.jdbcTypes;
+    this.columnIndexMap = rsw.columnIndexMap;
   }
 
   public ResultSet getResultSet() {
@@ -78,6 +122,16 @@ public class ResultSetWrapper {
     return jdbcTypes;
   }
 
+  /**
+   * Gets a key that identifies the column layout of the result set,
+   * i.e. the label, JDBC type and class name of every column in order.
+   *
+   * @return the column signature
+   */
+  public CacheKey getColumnSignature() {
+    return columns.getColumnSignature();
+  }
+
   public JdbcType getJdbcType(String columnName) {
     for (int i = 0 ; i < columnNames.size(); i++) {
       if (columnNames.get(i).equalsIgnoreCase(columnName)) {
@@ -87,6 +141,47 @@ public class ResultSetWrapper {
     return null;
   }
 
+  /**
+   * Gets the 1-based index of the column in the result set.
+   * Column names are compared case-insensitively and the first matching column is returned.
+   *
+   * @param columnName
+   * @return the column index, or -1 if the result set does not contain the column
+   */
+  public int getColumnIndex(String columnName) {
+    if (columnName == null) {
+      return -1;
+    }
+    final Integer index = columnIndexMap.get(columnName.toUpperCase(Locale.ENGLISH));
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Gets the 1-based column indexes of the property mappings of the result map,
+   * in the same order as {@link ResultMap#getPropertyResultMappings()}.
+   * The index is 0 when the mapping has no column or the column is not contained in the result set.
+   *
+   * @param resultMap
+   * @param columnPrefix
+   * @return the column indexes
+   */
+  public int[] getPropertyColumnIndexes(ResultMap resultMap, String columnPrefix) {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    int[] columnIndexes = propertyColumnIndexesMap.get(mapKey);
+    if (columnIndexes == null) {
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      columnIndexes = new int[propertyMappings.size()];
+      for (int i = 0; i < columnIndexes.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        if (propertyMapping.getColumn() != null && propertyMapping.getNestedResultMapId() == null) {
+          columnIndexes[i] = Math.max(getColumnIndex(prependPrefix(propertyMapping.getColumn(), columnPrefix)), 0);
+        }
+      }
+      propertyColumnIndexesMap.put(mapKey, columnIndexes);
+    }
+    return columnIndexes;
+  }
+
   /**
    * Gets the type handler to use when reading the result set.
    * Tries to get from the TypeHandlerRegistry by searching for the property type.
@@ -112,7 +207,7 @@ public class ResultSetWrapper {
       // See issue #59 comment 10
       if (handler == null || handler instanceof UnknownTypeHandler) {
         final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
+        final Class<?> javaType = columns.getJavaType(index);
         if (javaType != null && jdbcType != null) {
           handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
         } else if (javaType != null) {
@@ -129,7 +224,7 @@ public class ResultSetWrapper {
     return handler;
   }
 
-  private Class<?> resolveClass(String className) {
+  private static Class<?> resolveClass(String className) {
     try {
       // #699 className could be null
       if (className != null) {
@@ -180,6 +275,13 @@ public class ResultSetWrapper {
     return resultMap.getId() + ":" + columnPrefix;
   }
 
+  private String prependPrefix(String columnName, String prefix) {
+    if (prefix == null || prefix.length() == 0) {
+      return columnName;
+    }
+    return prefix + columnName;
+  }
+
   private Set<String> prependPrefixes(Set<String> columnNames, String prefix) {
     if (columnNames == null || columnNames.isEmpty() || prefix == null || prefix.length() == 0) {
       return columnNames;
@@ -191,4 +293,62 @@ public class ResultSetWrapper {
     return prefixed;
   }
 
+  /**
+   * The column information read from the ResultSetMetaData. It does not change once created,
+   * so it can be shared by the wrappers of several executions of the same statement.
+   */
+  static final class Columns {
+
+    // marks a class name that cannot be resolved
+    private static final Object UNRESOLVED = new Object();
+
+    private final List<String> columnNames;
+    private final List<String> classNames;
+    private final List<JdbcType> jdbcTypes;
+    private final Map<String, Integer> columnIndexMap = new HashMap<>();
+    private final Object[] javaTypes;
+    private volatile CacheKey columnSignature;
+
+    Columns(ResultSetMetaData metaData, int columnCount, boolean useColumnLabel) throws SQLException {
+      final List<String> columnNames = new ArrayList<>();
+      final List<String> classNames = new ArrayList<>();
+      final List<JdbcType> jdbcTypes = new ArrayList<>();
+      for (int i = 1; i <= columnCount; i++) {
+        final String columnName = useColumnLabel ? metaData.getColumnLabel(i) : metaData.getColumnName(i);
+        columnNames.add(columnName);
+        jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
+        classNames.add(metaData.getColumnClassName(i));
+        // the first matching column wins, same as ResultSet#findColumn
+        columnIndexMap.putIfAbsent(columnName.toUpperCase(Locale.ENGLISH), i);
+      }
+      this.columnNames = Collections.unmodifiableList(columnNames);
+      this.classNames = Collections.unmodifiableList(classNames);
+      this.jdbcTypes = Collections.unmodifiableList(jdbcTypes);
+      this.javaTypes = new Object[columnCount];
+    }
+
+    Class<?> getJavaType(int index) {
+      Object javaType = javaTypes[index];
+      if (javaType == null) {
+        final Class<?> resolved = resolveClass(classNames.get(index));
+        javaType = resolved == null ? UNRESOLVED : resolved;
+        javaTypes[index] = javaType;
+      }
+      return javaType == UNRESOLVED ? null : (Class<?>) javaType;
+    }
+
+    CacheKey getColumnSignature() {
+      if (columnSignature == null) {
+        final CacheKey cacheKey = new CacheKey();
+        for (int i = 0; i < columnNames.size(); i++) {
+          cacheKey.update(columnNames.get(i));
+          cacheKey.update(jdbcTypes.get(i));
+          cacheKey.update(classNames.get(i));
+        }
+        columnSignature = cacheKey;
+      }
+      return columnSignature;
+    }
+  }
+
 }
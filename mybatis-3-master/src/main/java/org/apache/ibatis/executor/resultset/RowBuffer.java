@@ -0,0 +1,391 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.List;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A read only, forward only ResultSet over rows that were copied from a live ResultSet.
+ * It allows the rows to be mapped on another thread than the one that reads the live ResultSet.
+ * <p>
+ * The values are read with {@link ResultSet#getObject(int)} and converted when a typed getter is called.
+ * Dates, times and timestamps without a time zone are converted with the default time zone, unless a getter is
+ * given a {@link Calendar}. Overloads with other extra arguments are not supported.
+ * LOBs are copied into memory, so the rows do not depend on the connection anymore.
+ */
+final class RowBuffer implements InvocationHandler {
+
+  private final ResultSetWrapper rsw;
+  private final ResultSetMetaData metaData;
+  private final List<Object[]> rows;
+  private int rowIndex = -1;
+  private boolean wasNull;
+
+  private RowBuffer(ResultSetWrapper rsw, ResultSetMetaData metaData, List<Object[]> rows) {
+    this.rsw = rsw;
+    this.metaData = metaData;
+    this.rows = rows;
+  }
+
+  /**
+   * Copies the values of the current row of the ResultSet.
+   *
+   * @param rs the ResultSet positioned on a row
+   * @param columnCount the number of columns
+   * @return the values of the row
+   * @throws SQLException if a value cannot be read
+   */
+  static Object[] readRow(ResultSet rs, int columnCount) throws SQLException {
+    final Object[] row = new Object[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      Object value = rs.getObject(i + 1);
+      if (value instanceof Blob) {
+        value = new SerialBlob((Blob) value);
+      } else if (value instanceof Clob) {
+        value = new SerialClob((Clob) value);
+      }
+      row[i] = value;
+    }
+    return row;
+  }
+
+  /**
+   * Creates a ResultSet over buffered rows.
+   *
+   * @param rsw the wrapper of the ResultSet the rows were read from
+   * @param metaData the meta data of the ResultSet the rows were read from
+   * @param rows the rows created by {@link #readRow(ResultSet, int)}
+   * @return the ResultSet
+   */
+  static ResultSet newInstance(ResultSetWrapper rsw, ResultSetMetaData metaData, List<Object[]> rows) {
+    InvocationHandler handler = new RowBuffer(rsw, metaData, rows);
+    ClassLoader cl = ResultSet.class.getClassLoader();
+    return (ResultSet) Proxy.newProxyInstance(cl, new Class[]{ResultSet.class}, handler);
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
+    try {
+      if (Object.class.equals(method.getDeclaringClass())) {
+        return method.invoke(this, params);
+      }
+      final String name = method.getName();
+      switch (name) {
+        case "next":
+          return ++rowIndex < rows.size();
+        case "isClosed":
+          return false;
+        case "getType":
+          return ResultSet.TYPE_FORWARD_ONLY;
+        case "close":
+          return null;
+        case "wasNull":
+          return wasNull;
+        case "getMetaData":
+          return metaData;
+        case "findColumn":
+          return findColumn((String) params[0]);
+        default:
+          break;
+      }
+      if (!name.startsWith("get") || params == null || params.length == 0) {
+        throw new SQLFeatureNotSupportedException("Method '" + name + "' is not supported by buffered rows.");
+      }
+      if (params.length > 1 && !isSupportedOverload(name, params)) {
+        throw new SQLFeatureNotSupportedException("Method '" + name + "' with " + params.length
+            + " arguments is not supported by buffered rows.");
+      }
+      final Object value = getValue(params[0]);
+      if (value == null) {
+        return method.getReturnType().isPrimitive() ? primitiveDefault(method.getReturnType()) : null;
+      }
+      if (params.length == 2) {
+        return "getObject".equals(name) ? convert(value, (Class<?>) params[1])
+            : convertInZone(value, convert(value, method.getReturnType()), (Calendar) params[1]);
+      }
+      return convert(value, method.getReturnType());
+    } catch (Throwable t) {
+      throw ExceptionUtil.unwrapThrowable(t);
+    }
+  }
+
+  private static boolean isSupportedOverload(String name, Object[] params) {
+    if (params.length != 2) {
+      return false;
+    }
+    switch (name) {
+      case "getObject":
+        return params[1] instanceof Class;
+      case "getDate":
+      case "getTime":
+      case "getTimestamp":
+        return params[1] == null || params[1] instanceof Calendar;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Interprets a date, time or timestamp without a time zone in the time zone of the calendar, as the getters of
+   * a ResultSet that take a {@link Calendar} do.
+   */
+  private static Object convertInZone(Object value, Object converted, Calendar calendar) {
+    if (calendar == null || value instanceof OffsetDateTime || value instanceof ZonedDateTime || value instanceof Instant) {
+      return converted;
+    }
+    final ZoneId zone = calendar.getTimeZone().toZoneId();
+    if (converted instanceof Timestamp) {
+      return Timestamp.from(((Timestamp) converted).toLocalDateTime().atZone(zone).toInstant());
+    } else if (converted instanceof Date) {
+      return new Date(((Date) converted).toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli());
+    } else if (converted instanceof Time) {
+      return new Time(((Time) converted).toLocalTime().atDate(LocalDate.of(1970, 1, 1)).atZone(zone).toInstant().toEpochMilli());
+    }
+    return converted;
+  }
+
+  private int findColumn(String columnName) throws SQLException {
+    final int columnIndex = rsw.getColumnIndex(columnName);
+    if (columnIndex < 0) {
+      throw new SQLException("Column '" + columnName + "' not found.");
+    }
+    return columnIndex;
+  }
+
+  private Object getValue(Object column) throws SQLException {
+    if (rowIndex < 0 || rowIndex >= rows.size()) {
+      throw new SQLException("The ResultSet is not positioned on a row.");
+    }
+    final int columnIndex = column instanceof Integer ? (Integer) column : findColumn((String) column);
+    final Object[] row = rows.get(rowIndex);
+    if (columnIndex < 1 || columnIndex > row.length) {
+      throw new SQLException("Column index " + columnIndex + " is out of range.");
+    }
+    final Object value = row[columnIndex - 1];
+    wasNull = value == null;
+    return value;
+  }
+
+  private static Object primitiveDefault(Class<?> type) {
+    if (type == boolean.class) {
+      return false;
+    } else if (type == float.class) {
+      return 0f;
+    } else if (type == double.class) {
+      return 0d;
+    } else if (type == long.class) {
+      return 0L;
+    } else if (type == short.class) {
+      return (short) 0;
+    } else if (type == byte.class) {
+      return (byte) 0;
+    }
+    return 0;
+  }
+
+  private static Object convert(Object value, Class<?> type) throws SQLException {
+    if (type == Object.class || type.isInstance(value)) {
+      return value;
+    }
+    if (type == String.class) {
+      return toString(value);
+    } else if (type == boolean.class || type == Boolean.class) {
+      return toBoolean(value);
+    } else if (type == byte.class || type == Byte.class) {
+      return toNumber(value).byteValue();
+    } else if (type == short.class || type == Short.class) {
+      return toNumber(value).shortValue();
+    } else if (type == int.class || type == Integer.class) {
+      return toNumber(value).intValue();
+    } else if (type == long.class || type == Long.class) {
+      return toNumber(value).longValue();
+    } else if (type == float.class || type == Float.class) {
+      return toNumber(value).floatValue();
+    } else if (type == double.class || type == Double.class) {
+      return toNumber(value).doubleValue();
+    } else if (type == BigDecimal.class) {
+      return value instanceof Number || value instanceof String ? new BigDecimal(value.toString().trim()) : fail(value, type);
+    } else if (type == byte[].class) {
+      return value instanceof Blob ? ((Blob) value).getBytes(1, (int) ((Blob) value).length()) : fail(value, type);
+    } else if (type == Blob.class) {
+      return value instanceof byte[] ? new SerialBlob((byte[]) value) : fail(value, type);
+    } else if (type == Clob.class) {
+      return value instanceof String ? new SerialClob(((String) value).toCharArray()) : fail(value, type);
+    } else if (type == Reader.class) {
+      return value instanceof Clob ? ((Clob) value).getCharacterStream() : new StringReader(toString(value));
+    } else if (type == InputStream.class) {
+      return toInputStream(value);
+    }
+    return convertTemporal(value, type);
+  }
+
+  private static Object convertTemporal(Object value, Class<?> type) throws SQLException {
+    if (value instanceof Timestamp) {
+      final Timestamp timestamp = (Timestamp) value;
+      if (type == LocalDateTime.class) {
+        return timestamp.toLocalDateTime();
+      } else if (type == LocalDate.class) {
+        return timestamp.toLocalDateTime().toLocalDate();
+      } else if (type == LocalTime.class) {
+        return timestamp.toLocalDateTime().toLocalTime();
+      }
+      value = timestamp.toLocalDateTime();
+    } else if (value instanceof Date) {
+      value = ((Date) value).toLocalDate();
+    } else if (value instanceof Time) {
+      value = ((Time) value).toLocalTime();
+    } else if (value instanceof java.util.Date) {
+      value = new Timestamp(((java.util.Date) value).getTime()).toLocalDateTime();
+    } else if (value instanceof OffsetDateTime || value instanceof ZonedDateTime) {
+      final OffsetDateTime offsetDateTime = value instanceof ZonedDateTime
+          ? ((ZonedDateTime) value).toOffsetDateTime() : (OffsetDateTime) value;
+      if (type == ZonedDateTime.class) {
+        return offsetDateTime.toZonedDateTime();
+      } else if (type == OffsetDateTime.class) {
+        return offsetDateTime;
+      } else if (type == OffsetTime.class) {
+        return offsetDateTime.toOffsetTime();
+      } else if (type == Instant.class) {
+        return offsetDateTime.toInstant();
+      }
+      value = offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+    if (type.isInstance(value)) {
+      return value;
+    }
+    if (value instanceof LocalDateTime) {
+      final LocalDateTime localDateTime = (LocalDateTime) value;
+      if (type == Timestamp.class) {
+        return Timestamp.valueOf(localDateTime);
+      } else if (type == Date.class) {
+        return Date.valueOf(localDateTime.toLocalDate());
+      } else if (type == Time.class) {
+        return Time.valueOf(localDateTime.toLocalTime());
+      } else if (type == LocalDate.class) {
+        return localDateTime.toLocalDate();
+      } else if (type == LocalTime.class) {
+        return localDateTime.toLocalTime();
+      } else if (type == java.util.Date.class) {
+        return Timestamp.valueOf(localDateTime);
+      } else if (type == OffsetDateTime.class) {
+        return localDateTime.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+      } else if (type == ZonedDateTime.class) {
+        return localDateTime.atZone(ZoneId.systemDefault());
+      } else if (type == Instant.class) {
+        return localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+      }
+    } else if (value instanceof LocalDate) {
+      if (type == Date.class) {
+        return Date.valueOf((LocalDate) value);
+      } else if (type == Timestamp.class) {
+        return Timestamp.valueOf(((LocalDate) value).atStartOfDay());
+      } else if (type == LocalDateTime.class) {
+        return ((LocalDate) value).atStartOfDay();
+      }
+    } else if (value instanceof LocalTime) {
+      if (type == Time.class) {
+        return Time.valueOf((LocalTime) value);
+      }
+    }
+    return fail(value, type);
+  }
+
+  private static String toString(Object value) throws SQLException {
+    if (value instanceof Clob) {
+      final Clob clob = (Clob) value;
+      return clob.getSubString(1, (int) clob.length());
+    } else if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).toPlainString();
+    }
+    return value.toString();
+  }
+
+  private static InputStream toInputStream(Object value) throws SQLException {
+    if (value instanceof byte[]) {
+      return new ByteArrayInputStream((byte[]) value);
+    } else if (value instanceof Blob) {
+      return ((Blob) value).getBinaryStream();
+    } else if (value instanceof Clob || value instanceof String) {
+      // getAsciiStream, SerialClob does not support it
+      return new ByteArrayInputStream(toString(value).getBytes(StandardCharsets.US_ASCII));
+    }
+    return (InputStream) fail(value, InputStream.class);
+  }
+
+  private static boolean toBoolean(Object value) throws SQLException {
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    } else if (value instanceof Number) {
+      return ((Number) value).intValue() != 0;
+    } else if (value instanceof String) {
+      final String string = ((String) value).trim();
+      return "1".equals(string) || "true".equalsIgnoreCase(string);
+    }
+    return (Boolean) fail(value, boolean.class);
+  }
+
+  private static Number toNumber(Object value) throws SQLException {
+    if (value instanceof Number) {
+      return (Number) value;
+    } else if (value instanceof Boolean) {
+      return (Boolean) value ? 1 : 0;
+    } else if (value instanceof String) {
+      try {
+        return new BigDecimal(((String) value).trim());
+      } catch (NumberFormatException e) {
+        throw new SQLException("Cannot convert '" + value + "' to a number.", e);
+      }
+    }
+    return (Number) fail(value, Number.class);
+  }
+
+  private static Object fail(Object value, Class<?> type) throws SQLException {
+    throw new SQLException("Cannot convert a value of type " + value.getClass().getName() + " to " + type.getName() + ".");
+  }
+
+}
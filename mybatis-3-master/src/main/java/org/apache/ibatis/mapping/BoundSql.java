@@ -20,7 +20,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.reflection.MetaObject;
-import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -62,8 +61,15 @@ public class BoundSql {
   }
 
   public boolean hasAdditionalParameter(String name) {
-    String paramName = new PropertyTokenizer(name).getName();
-    return additionalParameters.containsKey(paramName);
+    if (additionalParameters.isEmpty()) {
+      return false;
+    }
+    // the same name as PropertyTokenizer, without creating a tokenizer
+    int end = 0;
+    while (end < name.length() && name.charAt(end) != '.' && name.charAt(end) != '[') {
+      end++;
+    }
+    return additionalParameters.containsKey(end == name.length() ? name : name.substring(0, end));
   }
 
   public void setAdditionalParameter(String name, Object value) {
@@ -47,6 +47,7 @@ public final class MappedStatement {
   private boolean flushCacheRequired;
   private boolean useCache;
   private boolean resultOrdered;
+  private String[] resultOrderedBy;
   private SqlCommandType sqlCommandType;
   private KeyGenerator keyGenerator;
   private String[] keyProperties;
@@ -169,6 +170,11 @@ public final class MappedStatement {
       return this;
     }
 
+    public Builder resultOrderedBy(String resultOrderedBy) {
+      mappedStatement.resultOrderedBy = delimitedStringToArray(resultOrderedBy);
+      return this;
+    }
+
     public Builder resultSets(String resultSet) {
       mappedStatement.resultSets = delimitedStringToArray(resultSet);
       return this;
@@ -261,6 +267,16 @@ public final class MappedStatement {
     return resultOrdered;
   }
 
+  /**
+   * Gets the columns the rows of this statement are sorted by.
+   * When they are declared, the rows of nested result maps are released as soon as these column values change.
+   *
+   * @return the sort columns, or {@code null} if not declared
+   */
+  public String[] getResultOrderedBy() {
+    return resultOrderedBy;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
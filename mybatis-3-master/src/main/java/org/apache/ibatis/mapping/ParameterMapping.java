@@ -17,6 +17,7 @@ package org.apache.ibatis.mapping;
 
 import java.sql.ResultSet;
 
+import org.apache.ibatis.reflection.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -38,6 +39,7 @@ public class ParameterMapping {
   private String resultMapId;
   private String jdbcTypeName;
   private String expression;
+  private PropertyPath propertyPath;
 
   private ParameterMapping() {
   }
@@ -102,6 +104,7 @@ public class ParameterMapping {
     public ParameterMapping build() {
       resolveTypeHandler();
       validate();
+      parameterMapping.propertyPath = PropertyPath.compile(parameterMapping.property);
       return parameterMapping;
     }
 
@@ -199,6 +202,15 @@ public class ParameterMapping {
     return expression;
   }
 
+  /**
+   * Used when setting parameters to the PreparedStatement, to get the value of the property without a meta object.
+   * @return the compiled property, or <code>null</code> when the property cannot be compiled
+   * @since 3.5.2
+   */
+  public PropertyPath getPropertyPath() {
+    return propertyPath;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder("ParameterMapping{");
@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * An XPath expression that only selects child elements by name, such as <code>/mapper/resultMap</code>, <code>cache</code>
+ * or <code>select|insert|update|delete</code>.
+ * These are the expressions used by the builders, and walking the children of a node is much cheaper than evaluating them with {@link javax.xml.xpath.XPath}.
+ *
+ * @since 3.5.2
+ */
+final class ChildElementPath {
+
+  //不是简单子元素路径的表达式，仍然使用 XPath 计算
+  private static final ChildElementPath UNSUPPORTED = new ChildElementPath(false, Collections.emptyList());
+  private static final int MAX_CACHED_PATHS = 256;
+  private static final Map<String, ChildElementPath> paths = new ConcurrentHashMap<>();
+
+  //是否从文档根节点开始（以 / 开头）
+  private final boolean absolute;
+  //每一级可匹配的元素名，只有单级路径才可以用 | 列出多个元素名
+  private final List<List<String>> steps;
+
+  private ChildElementPath(boolean absolute, List<List<String>> steps) {
+    this.absolute = absolute;
+    this.steps = steps;
+  }
+
+  /**
+   * @return the path, or <code>null</code> when the expression needs a real XPath evaluation
+   */
+  static ChildElementPath compile(String expression) {
+    ChildElementPath path = paths.get(expression);
+    if (path == null) {
+      path = parse(expression);
+      if (paths.size() < MAX_CACHED_PATHS) {
+        paths.put(expression, path);
+      }
+    }
+    return path == UNSUPPORTED ? null : path;
+  }
+
+  private static ChildElementPath parse(String expression) {
+    final boolean absolute = expression.startsWith("/");
+    final String relativePath = absolute ? expression.substring(1) : expression;
+    final List<List<String>> steps = new ArrayList<>();
+    if (relativePath.indexOf('|') >= 0) {
+      if (absolute || relativePath.indexOf('/') >= 0) {
+        return UNSUPPORTED;
+      }
+      final List<String> names = new ArrayList<>();
+      for (String name : relativePath.split("\\|", -1)) {
+        if (!isElementName(name)) {
+          return UNSUPPORTED;
+        }
+        names.add(name);
+      }
+      steps.add(names);
+    } else {
+      for (String name : relativePath.split("/", -1)) {
+        if (!isElementName(name)) {
+          return UNSUPPORTED;
+        }
+        steps.add(Collections.singletonList(name));
+      }
+    }
+    return new ChildElementPath(absolute, steps);
+  }
+
+  private static boolean isElementName(String name) {
+    if (name.isEmpty() || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_')) {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+        return false;
+      }
+    }
+    // node(), text() and the like are not element names
+    return !name.equals("node") && !name.equals("text") && !name.equals("comment");
+  }
+
+  /**
+   * Selects the matching elements in document order.
+   */
+  List<Node> select(Node root) {
+    List<Node> nodes = Collections.singletonList(start(root));
+    for (List<String> names : steps) {
+      final List<Node> children = new ArrayList<>();
+      for (Node node : nodes) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+          if (matches(child, names)) {
+            children.add(child);
+          }
+        }
+      }
+      nodes = children;
+    }
+    return nodes;
+  }
+
+  /**
+   * Selects the first matching element in document order, or <code>null</code>.
+   */
+  Node selectFirst(Node root) {
+    return selectFirst(start(root), 0);
+  }
+
+  private Node selectFirst(Node node, int step) {
+    if (step == steps.size()) {
+      return node;
+    }
+    for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (matches(child, steps.get(step))) {
+        Node found = selectFirst(child, step + 1);
+        if (found != null) {
+          return found;
+        }
+      }
+    }
+    return null;
+  }
+
+  private Node start(Node root) {
+    if (absolute && root.getNodeType() != Node.DOCUMENT_NODE) {
+      Document document = root.getOwnerDocument();
+      return document == null ? root : document;
+    }
+    return root;
+  }
+
+  private static boolean matches(Node node, List<String> names) {
+    return node.getNodeType() == Node.ELEMENT_NODE && names.contains(node.getNodeName());
+  }
+
+}
@@ -23,6 +23,7 @@ import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.reflection.wrapper.CollectionWrapper;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.MapWrapper;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
@@ -37,6 +38,10 @@ public class MetaObject {
   private final ObjectFactory objectFactory;
   private final ObjectWrapperFactory objectWrapperFactory;
   private final ReflectorFactory reflectorFactory;
+  // 默认的包装器可以直接通过编译过的属性路径读写属性
+  private final boolean usePropertyPaths;
+  // 根对象的反射器, 缓存了以其类为根的属性路径
+  private Reflector reflector;
 
   private MetaObject(Object object, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
     this.originalObject = object;
@@ -55,6 +60,8 @@ public class MetaObject {
     } else {
       this.objectWrapper = new BeanWrapper(this, object);
     }
+    this.usePropertyPaths = (objectWrapper instanceof BeanWrapper || objectWrapper instanceof MapWrapper)
+        && objectWrapperFactory.getClass() == DefaultObjectWrapperFactory.class;
   }
 
   public static MetaObject forObject(Object object, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
@@ -110,6 +117,15 @@ public class MetaObject {
   }
 
   public Object getValue(String name) {
+    if (usePropertyPaths) {
+      PropertyPath path = getPropertyPath(name);
+      if (path != null) {
+        Object value = path.getValue(originalObject, reflectorFactory);
+        if (value != PropertyPath.UNRESOLVED) {
+          return value;
+        }
+      }
+    }
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
       MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
@@ -124,6 +140,12 @@ public class MetaObject {
   }
 
   public void setValue(String name, Object value) {
+    if (usePropertyPaths) {
+      PropertyPath path = getPropertyPath(name);
+      if (path != null && path.setValue(originalObject, value, reflectorFactory)) {
+        return;
+      }
+    }
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
       MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
@@ -141,6 +163,24 @@ public class MetaObject {
     }
   }
 
+  private PropertyPath getPropertyPath(String name) {
+    if (name == null) {
+      return null;
+    }
+    // 只缓存 JavaBean 的属性路径; Map 的键 (如 foreach 的 __frch_ 参数和附加参数) 数量不定, 不缓存:
+    // 单级的键直接交给 MapWrapper, 多级的路径每次重新编译
+    if (objectWrapper instanceof MapWrapper) {
+      return name.indexOf('.') < 0 && name.indexOf('[') < 0 ? null : PropertyPath.compile(name);
+    }
+    if (!reflectorFactory.isClassCacheEnabled()) {
+      return PropertyPath.compile(name);
+    }
+    if (reflector == null) {
+      reflector = reflectorFactory.findForClass(originalObject.getClass());
+    }
+    return reflector.getPropertyPath(name);
+  }
+
   public MetaObject metaObjectForProperty(String name) {
     Object value = getValue(name);
     return MetaObject.forObject(value, objectFactory, objectWrapperFactory, reflectorFactory);
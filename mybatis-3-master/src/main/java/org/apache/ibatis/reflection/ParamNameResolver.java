@@ -49,6 +49,11 @@ public class ParamNameResolver {
 
   private boolean hasParamAnnotation;
 
+  // names 的展开形式, getNamedParams 每次调用时不必再遍历 SortedMap 和生成 param1, param2, ...
+  private final int[] argIndexes;
+  private final String[] paramNames;
+  private final String[] genericParamNames;
+
   public ParamNameResolver(Configuration config, Method method) {
     final Class<?>[] paramTypes = method.getParameterTypes();
     final Annotation[][] paramAnnotations = method.getParameterAnnotations();
@@ -82,6 +87,18 @@ public class ParamNameResolver {
       map.put(paramIndex, name);
     }
     names = Collections.unmodifiableSortedMap(map);
+    argIndexes = new int[map.size()];
+    paramNames = new String[map.size()];
+    genericParamNames = new String[map.size()];
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : map.entrySet()) {
+      argIndexes[i] = entry.getKey();
+      paramNames[i] = entry.getValue();
+      final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
+      // ensure not to overwrite parameter named with @Param
+      genericParamNames[i] = map.containsValue(genericParamName) ? null : genericParamName;
+      i++;
+    }
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -113,21 +130,17 @@ public class ParamNameResolver {
       return null;
     } else if (!hasParamAnnotation && paramCount == 1) {
       //如果方法参数列表无 @Param 注解，且仅有一个非特别参数，则返回该参数的值
-      return args[names.firstKey()];
+      return args[argIndexes[0]];
     } else {
       final Map<String, Object> param = new ParamMap<>();
-      int i = 0;
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
+      for (int i = 0; i < paramCount; i++) {
         // 添加 <参数名, 参数值> 键值对到 param 中
-        param.put(entry.getValue(), args[entry.getKey()]);
+        param.put(paramNames[i], args[argIndexes[i]]);
         // add generic param names (param1, param2, ...)
-        final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
+        if (genericParamNames[i] != null) {
           // 添加 <param*, value> 到 param 中
-          param.put(genericParamName, args[entry.getKey()]);
+          param.put(genericParamNames[i], args[argIndexes[i]]);
         }
-        i++;
       }
       return param;
     }
@@ -0,0 +1,217 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+
+/**
+ * A path of properties like <code>order.lines[0].product.id</code> that gets and sets values the same way as
+ * {@link MetaObject#getValue(String)} and {@link MetaObject#setValue(String, Object)}, but without tokenizing the path
+ * and creating a meta object for each property again. The getter and setter of each property are looked up in the
+ * {@link Reflector} of the object that is read, so a path can be used with objects of any type.
+ * <p>
+ * Bean properties, Map keys and the indexes of Lists, arrays and Maps are supported. Collections and custom object
+ * wrappers are not: {@link #getValue(Object, ReflectorFactory)} returns {@link #UNRESOLVED} for them, and the value
+ * must be read with a {@link MetaObject} instead.
+ *
+ * @since 3.5.2
+ */
+public final class PropertyPath {
+
+  /**
+   * Returned when a value cannot be read without a {@link MetaObject}.
+   */
+  public static final Object UNRESOLVED = new Object();
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final Property[] properties;
+
+  private PropertyPath(Property[] properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Compiles a path of properties.
+   *
+   * @param expression the path, e.g. <code>order.lines[0].product.id</code>
+   * @return the compiled path, or <code>null</code> when the path cannot be compiled
+   */
+  public static PropertyPath compile(String expression) {
+    if (expression == null || expression.isEmpty()) {
+      return null;
+    }
+    String[] names = expression.split("\\.", -1);
+    Property[] properties = new Property[names.length];
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+      String index = null;
+      int delim = name.indexOf('[');
+      if (delim >= 0) {
+        if (name.indexOf('[', delim + 1) >= 0 || name.indexOf(']') != name.length() - 1) {
+          return null;
+        }
+        index = name.substring(delim + 1, name.length() - 1);
+        name = name.substring(0, delim);
+      } else if (name.isEmpty() || name.indexOf(']') >= 0) {
+        return null;
+      }
+      properties[i] = new Property(name, index);
+    }
+    return new PropertyPath(properties);
+  }
+
+  /**
+   * Gets the value of this path. Like {@link MetaObject#getValue(String)}, the value is <code>null</code>
+   * when an object on the path is <code>null</code>.
+   *
+   * @param object the object to read from
+   * @param reflectorFactory the reflector factory the getters are resolved with
+   * @return the value, or {@link #UNRESOLVED} when it must be read with a {@link MetaObject}
+   */
+  public Object getValue(Object object, ReflectorFactory reflectorFactory) {
+    Object value = object;
+    for (Property property : properties) {
+      if (value == null) {
+        return null;
+      }
+      value = property.get(value, reflectorFactory);
+      if (value == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Sets the value of this path. Unlike {@link MetaObject#setValue(String, Object)}, the objects on the path
+   * are not instantiated when they are <code>null</code>, so the value is not set.
+   *
+   * @param object the object to write to
+   * @param value the value
+   * @param reflectorFactory the reflector factory the getters and setters are resolved with
+   * @return <code>false</code> when the value must be set with a {@link MetaObject}
+   */
+  public boolean setValue(Object object, Object value, ReflectorFactory reflectorFactory) {
+    Object parent = object;
+    int last = properties.length - 1;
+    for (int i = 0; i < last; i++) {
+      parent = properties[i].get(parent, reflectorFactory);
+      if (parent == null || parent == UNRESOLVED) {
+        return false;
+      }
+    }
+    return properties[last].set(parent, value, reflectorFactory);
+  }
+
+  private static final class Property {
+    private final String name;
+    private final String index;
+
+    Property(String name, String index) {
+      this.name = name;
+      this.index = index;
+    }
+
+    Object get(Object object, ReflectorFactory reflectorFactory) {
+      if (object instanceof Collection || object instanceof ObjectWrapper) {
+        return UNRESOLVED;
+      }
+      Object value = name.isEmpty() ? object : getProperty(object, reflectorFactory);
+      if (index == null || value == UNRESOLVED) {
+        return value;
+      }
+      if (value instanceof Map) {
+        return ((Map<?, ?>) value).get(index);
+      } else if (value instanceof List) {
+        return ((List<?>) value).get(Integer.parseInt(index));
+      } else if (value != null && value.getClass().isArray()) {
+        return Array.get(value, Integer.parseInt(index));
+      }
+      return UNRESOLVED;
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean set(Object object, Object value, ReflectorFactory reflectorFactory) {
+      if (object instanceof Collection || object instanceof ObjectWrapper) {
+        return false;
+      }
+      if (index == null) {
+        return setProperty(object, value, reflectorFactory);
+      }
+      Object collection = name.isEmpty() ? object : getProperty(object, reflectorFactory);
+      if (collection instanceof Map) {
+        ((Map<String, Object>) collection).put(index, value);
+      } else if (collection instanceof List) {
+        ((List<Object>) collection).set(Integer.parseInt(index), value);
+      } else if (collection instanceof Object[]) {
+        ((Object[]) collection)[Integer.parseInt(index)] = value;
+      } else {
+        return false;
+      }
+      return true;
+    }
+
+    private Object getProperty(Object object, ReflectorFactory reflectorFactory) {
+      if (object instanceof Map) {
+        return ((Map<?, ?>) object).get(name);
+      }
+      Reflector reflector = reflectorFactory.findForClass(object.getClass());
+      if (!reflector.hasGetter(name)) {
+        return UNRESOLVED;
+      }
+      try {
+        try {
+          return reflector.getGetInvoker(name).invoke(object, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + name + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean setProperty(Object object, Object value, ReflectorFactory reflectorFactory) {
+      if (object instanceof Map) {
+        ((Map<String, Object>) object).put(name, value);
+        return true;
+      }
+      Reflector reflector = reflectorFactory.findForClass(object.getClass());
+      if (!reflector.hasSetter(name)) {
+        return false;
+      }
+      try {
+        try {
+          reflector.getSetInvoker(name).invoke(object, new Object[] {value});
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + name + "' of '" + object.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+      return true;
+    }
+  }
+
+}
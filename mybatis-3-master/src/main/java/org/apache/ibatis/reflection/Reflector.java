@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
@@ -48,6 +49,9 @@ import org.apache.ibatis.reflection.property.PropertyNamer;
  */
 public class Reflector {
 
+  // 每个类最多缓存的属性路径数量
+  private static final int MAX_PROPERTY_PATHS = 256;
+
   private final Class<?> type;
   private final String[] readablePropertyNames;
   private final String[] writablePropertyNames;
@@ -58,6 +62,8 @@ public class Reflector {
   private Constructor<?> defaultConstructor;
 
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
+  // 以该类为根对象编译过的属性路径, 达到上限后不再缓存新的路径
+  private final Map<String, PropertyPath> propertyPaths = new ConcurrentHashMap<>();
 
   public Reflector(Class<?> clazz) {
     type = clazz;
@@ -383,6 +389,21 @@ public class Reflector {
     return defaultConstructor != null;
   }
 
+  /**
+   * Gets the compiled path of an expression that is read from or written to an instance of this class.
+   * At most {@value #MAX_PROPERTY_PATHS} paths are cached, the paths compiled after that are not.
+   */
+  PropertyPath getPropertyPath(String expression) {
+    PropertyPath path = propertyPaths.get(expression);
+    if (path == null) {
+      path = PropertyPath.compile(expression);
+      if (path != null && propertyPaths.size() < MAX_PROPERTY_PATHS) {
+        propertyPaths.put(expression, path);
+      }
+    }
+    return path;
+  }
+
   public Invoker getSetInvoker(String propertyName) {
     Invoker method = setMethods.get(propertyName);
     if (method == null) {
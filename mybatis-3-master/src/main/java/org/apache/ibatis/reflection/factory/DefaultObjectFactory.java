@@ -15,7 +15,12 @@
  */
 package org.apache.ibatis.reflection.factory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,6 +34,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.ibatis.reflection.ReflectionException;
@@ -41,6 +47,11 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
 
   private static final long serialVersionUID = -8855120656740914948L;
 
+  private static final Object[] NO_ARGS = new Object[0];
+
+  // constructors resolved once per (type, arg types), invoked with the args spread from an Object[]
+  private transient Map<List<Class<?>>, MethodHandle> constructorHandles = new ConcurrentHashMap<>();
+
   @Override
   public <T> T create(Class<T> type) {
     return create(type, null, null);
@@ -59,40 +70,53 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
     // no props for default
   }
 
+  @SuppressWarnings("unchecked")
   private  <T> T instantiateClass(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
     try {
-      Constructor<T> constructor;
       if (constructorArgTypes == null || constructorArgs == null) {
-        constructor = type.getDeclaredConstructor();
-        try {
-          return constructor.newInstance();
-        } catch (IllegalAccessException e) {
-          if (Reflector.canControlMemberAccessible()) {
-            constructor.setAccessible(true);
-            return constructor.newInstance();
-          } else {
-            throw e;
-          }
-        }
+        return (T) (Object) getConstructorHandle(type, Collections.emptyList()).invokeExact(NO_ARGS);
       }
-      constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+      final MethodHandle constructor = getConstructorHandle(type, constructorArgTypes);
+      return (T) (Object) constructor.invokeExact(constructorArgs.toArray(new Object[constructorArgs.size()]));
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      String argTypes = Optional.ofNullable(constructorArgTypes).orElseGet(Collections::emptyList)
+          .stream().map(Class::getSimpleName).collect(Collectors.joining(","));
+      String argValues = Optional.ofNullable(constructorArgs).orElseGet(Collections::emptyList)
+          .stream().map(String::valueOf).collect(Collectors.joining(","));
+      throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
+    }
+  }
+
+  private MethodHandle getConstructorHandle(Class<?> type, List<Class<?>> constructorArgTypes) throws ReflectiveOperationException {
+    final Map<List<Class<?>>, MethodHandle> handles = constructorHandles;
+    final List<Class<?>> key = new ArrayList<>(constructorArgTypes.size() + 1);
+    key.add(type);
+    key.addAll(constructorArgTypes);
+    MethodHandle handle = handles.get(key);
+    if (handle == null) {
+      final Constructor<?> constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
       try {
-        return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+        handle = MethodHandles.lookup().unreflectConstructor(constructor);
       } catch (IllegalAccessException e) {
         if (Reflector.canControlMemberAccessible()) {
           constructor.setAccessible(true);
-          return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+          handle = MethodHandles.lookup().unreflectConstructor(constructor);
         } else {
           throw e;
         }
       }
-    } catch (Exception e) {
-      String argTypes = Optional.ofNullable(constructorArgTypes).orElseGet(Collections::emptyList)
-          .stream().map(Class::getSimpleName).collect(Collectors.joining(","));
-      String argValues = Optional.ofNullable(constructorArgs).orElseGet(Collections::emptyList)
-          .stream().map(String::valueOf).collect(Collectors.joining(","));
-      throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
+      handle = handle.asSpreader(Object[].class, constructorArgTypes.size())
+          .asType(MethodType.methodType(Object.class, Object[].class));
+      handles.put(key, handle);
     }
+    return handle;
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    constructorHandles = new ConcurrentHashMap<>();
   }
 
   protected Class<?> resolveInterface(Class<?> type) {
@@ -52,6 +52,13 @@ public class MethodInvoker implements Invoker {
     }
   }
 
+  /**
+   * @since 3.5.2
+   */
+  public Method getMethod() {
+    return method;
+  }
+
   @Override
   public Class<?> getType() {
     return type;
@@ -40,10 +40,26 @@ public class RawSqlSource implements SqlSource {
     this(configuration, getSql(configuration, rootSqlNode), parameterType);
   }
 
+  /**
+   * @param shrinkWhitespaces whether to shrink the whitespaces of the SQL, see {@link SqlSourceBuilder#shrinkWhitespaces(String)}
+   * @since 3.5.2
+   */
+  public RawSqlSource(Configuration configuration, SqlNode rootSqlNode, Class<?> parameterType, boolean shrinkWhitespaces) {
+    this(configuration, getSql(configuration, rootSqlNode), parameterType, shrinkWhitespaces);
+  }
+
   public RawSqlSource(Configuration configuration, String sql, Class<?> parameterType) {
+    this(configuration, sql, parameterType, configuration.isShrinkWhitespacesInSql());
+  }
+
+  /**
+   * @param shrinkWhitespaces whether to shrink the whitespaces of the SQL, see {@link SqlSourceBuilder#shrinkWhitespaces(String)}
+   * @since 3.5.2
+   */
+  public RawSqlSource(Configuration configuration, String sql, Class<?> parameterType, boolean shrinkWhitespaces) {
     SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> clazz = parameterType == null ? Object.class : parameterType;
-    sqlSource = sqlSourceParser.parse(sql, clazz, new HashMap<>());
+    sqlSource = sqlSourceParser.parse(sql, clazz, new HashMap<>(), shrinkWhitespaces);
   }
 
   private static String getSql(Configuration configuration, SqlNode rootSqlNode) {
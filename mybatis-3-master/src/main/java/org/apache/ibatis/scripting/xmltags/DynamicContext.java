@@ -15,9 +15,10 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.StringJoiner;
 
 import ognl.OgnlContext;
 import ognl.OgnlRuntime;
@@ -39,10 +40,18 @@ public class DynamicContext {
   }
 
   private final ContextMap bindings;
-  private final StringJoiner sqlBuilder = new StringJoiner(" ");
+  // the appended SQL, separated by spaces
+  private final StringBuilder sqlBuilder;
+  private boolean sqlAppended;
+  // the parameters of the SQL when it is compiled, see appendSql(SqlFragment)
+  private final List<String> parameters;
   private int uniqueNumber = 0;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
+    this(configuration, parameterObject, false);
+  }
+
+  DynamicContext(Configuration configuration, Object parameterObject, boolean compiled) {
     if (parameterObject != null && !(parameterObject instanceof Map)) {
       MetaObject metaObject = configuration.newMetaObject(parameterObject);
       bindings = new ContextMap(metaObject);
@@ -51,6 +60,18 @@ public class DynamicContext {
     }
     bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
     bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
+    sqlBuilder = new StringBuilder(256);
+    parameters = compiled ? new ArrayList<>() : null;
+  }
+
+  /**
+   * Creates a context that delegates to another context, so it has neither bindings nor SQL of its own.
+   * Subclasses must override every method that reads or writes the bindings or the SQL.
+   */
+  DynamicContext() {
+    bindings = null;
+    sqlBuilder = null;
+    parameters = null;
   }
 
   public Map<String, Object> getBindings() {
@@ -62,11 +83,61 @@ public class DynamicContext {
   }
 
   public void appendSql(String sql) {
-    sqlBuilder.add(sql);
+    if (parameters != null && sql != null && sql.contains("#{")) {
+      appendSql(SqlFragment.parse(sql));
+    } else {
+      appendSeparator();
+      sqlBuilder.append(sql);
+    }
+  }
+
+  /**
+   * Appends a fragment. When the SQL is compiled, the text of the fragment is appended and its parameters are collected,
+   * otherwise the SQL the fragment was parsed from is appended.
+   */
+  void appendSql(SqlFragment fragment) {
+    if (parameters == null) {
+      appendSql(fragment.getSql());
+    } else {
+      appendSeparator();
+      sqlBuilder.append(fragment.getText());
+      parameters.addAll(fragment.getParameters());
+    }
+  }
+
+  /**
+   * Whether the SQL is compiled, which means that <code>#{...}</code> parameters are replaced by <code>?</code>
+   * while it is assembled. Contexts that delegate to another context must return the value of their delegate.
+   */
+  boolean isCompiled() {
+    return parameters != null;
+  }
+
+  /**
+   * Gets the contents of the <code>#{...}</code> parameters of compiled SQL, in the order of their <code>?</code>.
+   */
+  List<String> getParameters() {
+    return parameters;
   }
 
   public String getSql() {
-    return sqlBuilder.toString().trim();
+    int start = 0;
+    int end = sqlBuilder.length();
+    while (start < end && sqlBuilder.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && sqlBuilder.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return sqlBuilder.substring(start, end);
+  }
+
+  private void appendSeparator() {
+    if (sqlAppended) {
+      sqlBuilder.append(' ');
+    } else {
+      sqlAppended = true;
+    }
   }
 
   public int getUniqueNumber() {
@@ -85,8 +156,9 @@ public class DynamicContext {
     @Override
     public Object get(Object key) {
       String strKey = (String) key;
-      if (super.containsKey(strKey)) {
-        return super.get(strKey);
+      Object value = super.get(strKey);
+      if (value != null || super.containsKey(strKey)) {
+        return value;
       }
 
       if (parameterMetaObject != null) {
@@ -15,9 +15,21 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -25,24 +37,125 @@ import org.apache.ibatis.session.Configuration;
  */
 public class DynamicSqlSource implements SqlSource {
 
+  // the number of generated SQL shapes cached per statement when dynamicSqlCacheEnabled is set
+  private static final int SQL_SOURCE_CACHE_SIZE = 64;
+
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final boolean shrinkWhitespaces;
+  // created on first use, only when dynamicSqlCacheEnabled is set
+  private volatile Cache sqlSourceCache;
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
+    this(configuration, rootSqlNode, configuration.isShrinkWhitespacesInSql());
+  }
+
+  /**
+   * @param shrinkWhitespaces whether to shrink the whitespaces of the generated SQL, see {@link SqlSourceBuilder#shrinkWhitespaces(String)}
+   * @since 3.5.2
+   */
+  public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode, boolean shrinkWhitespaces) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    this.shrinkWhitespaces = shrinkWhitespaces;
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    DynamicContext context = new DynamicContext(configuration, parameterObject);
+    boolean compiled = configuration.isCompiledDynamicSqlEnabled();
+    DynamicContext context = new DynamicContext(configuration, parameterObject, compiled);
     rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    CacheKey cacheKey = configuration.isDynamicSqlCacheEnabled() ? createCacheKey(context, parameterType) : null;
+    SqlSource sqlSource = cacheKey == null ? null : (SqlSource) getSqlSourceCache().getObject(cacheKey);
+    BoundSql boundSql;
+    if (sqlSource == null) {
+      SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+      if (compiled) {
+        // the parameters were replaced while the nodes were applied, so the SQL is not parsed again
+        sqlSource = sqlSourceParser.build(context.getSql(), context.getParameters(), parameterType, context.getBindings(), shrinkWhitespaces);
+      } else {
+        sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings(), shrinkWhitespaces);
+      }
+      boundSql = sqlSource.getBoundSql(parameterObject);
+      if (cacheKey != null && isCacheable(boundSql.getParameterMappings(), context.getBindings())) {
+        getSqlSourceCache().putObject(cacheKey, sqlSource);
+      }
+    } else {
+      boundSql = sqlSource.getBoundSql(parameterObject);
+    }
     context.getBindings().forEach(boundSql::setAdditionalParameter);
     return boundSql;
   }
 
+  private Cache getSqlSourceCache() {
+    Cache cache = sqlSourceCache;
+    if (cache == null) {
+      synchronized (this) {
+        cache = sqlSourceCache;
+        if (cache == null) {
+          LruCache lruCache = new LruCache(new PerpetualCache("DynamicSql"));
+          lruCache.setSize(SQL_SOURCE_CACHE_SIZE);
+          cache = new SynchronizedCache(lruCache);
+          sqlSourceCache = cache;
+        }
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * The generated SQL and its parameters are the same for calls that take the same branches with the same foreach sizes,
+   * and so are the types of its ParameterMappings as long as the parameter and the bound values have the same classes.
+   */
+  private CacheKey createCacheKey(DynamicContext context, Class<?> parameterType) {
+    CacheKey cacheKey = new CacheKey();
+    cacheKey.update(context.getSql());
+    cacheKey.update(context.isCompiled());
+    if (context.isCompiled()) {
+      cacheKey.updateAll(context.getParameters().toArray());
+    }
+    cacheKey.update(parameterType);
+    for (Map.Entry<String, Object> binding : context.getBindings().entrySet()) {
+      cacheKey.update(binding.getKey());
+      cacheKey.update(binding.getValue() == null ? null : binding.getValue().getClass());
+    }
+    return cacheKey;
+  }
+
+  /**
+   * The type of a parameter that is a nested property of a bound value, like <code>#{item.id}</code> in a foreach,
+   * is resolved from the values on the path. It only depends on their classes when they are beans.
+   */
+  private boolean isCacheable(List<ParameterMapping> parameterMappings, Map<String, Object> bindings) {
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      if (parameterMapping.getProperty() == null) {
+        continue;
+      }
+      PropertyTokenizer prop = new PropertyTokenizer(parameterMapping.getProperty());
+      if (!bindings.containsKey(prop.getName()) || !prop.hasNext() && prop.getIndex() == null) {
+        continue;
+      }
+      Object value = bindings.get(prop.getName());
+      while (true) {
+        if (prop.getIndex() != null) {
+          return false;
+        }
+        if (!prop.hasNext() || value == null) {
+          break;
+        }
+        if (value instanceof Map || value instanceof Collection || value.getClass().isArray()) {
+          return false;
+        }
+        prop = prop.next();
+        MetaObject metaValue = configuration.newMetaObject(value);
+        if (!metaValue.hasGetter(prop.getName())) {
+          return false;
+        }
+        value = metaValue.getValue(prop.getName());
+      }
+    }
+    return true;
+  }
+
 }
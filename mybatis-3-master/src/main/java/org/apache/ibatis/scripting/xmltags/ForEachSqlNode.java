@@ -15,10 +15,15 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.ArrayTypeHandler;
+import org.apache.ibatis.type.JdbcType;
 
 /**
  * @author Clinton Begin
@@ -34,9 +39,29 @@ public class ForEachSqlNode implements SqlNode {
   private final String separator;
   private final String item;
   private final String index;
+  private final Pattern itemPattern;
+  private final Pattern indexPattern;
+  private final boolean arrayBinding;
+  private final JdbcType elementJdbcType;
   private final Configuration configuration;
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, false);
+  }
+
+  /**
+   * @param arrayBinding whether the whole collection is bound to one parameter that is set as a JDBC array
+   *     (e.g. <code>ID = ANY(?)</code>) instead of applying the contents to each element
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, boolean arrayBinding) {
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, arrayBinding, null);
+  }
+
+  /**
+   * @param arrayBinding whether the whole collection is bound to one parameter that is set as a JDBC array
+   * @param elementJdbcType the JDBC type of the elements of the array, used when it cannot be told from the elements (e.g. an empty collection)
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, boolean arrayBinding, JdbcType elementJdbcType) {
     this.evaluator = new ExpressionEvaluator();
     this.collectionExpression = collectionExpression;
     this.contents = contents;
@@ -45,6 +70,10 @@ public class ForEachSqlNode implements SqlNode {
     this.separator = separator;
     this.index = index;
     this.item = item;
+    this.itemPattern = itemPattern(item);
+    this.indexPattern = index == null ? null : itemPattern(index);
+    this.arrayBinding = arrayBinding;
+    this.elementJdbcType = elementJdbcType;
     this.configuration = configuration;
   }
 
@@ -52,6 +81,10 @@ public class ForEachSqlNode implements SqlNode {
   public boolean apply(DynamicContext context) {
     Map<String, Object> bindings = context.getBindings();
     final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    if (arrayBinding) {
+      applyArray(context, iterable);
+      return true;
+    }
     if (!iterable.iterator().hasNext()) {
       return true;
     }
@@ -76,7 +109,7 @@ public class ForEachSqlNode implements SqlNode {
         applyIndex(context, i, uniqueNumber);
         applyItem(context, o, uniqueNumber);
       }
-      contents.apply(new FilteredDynamicContext(configuration, context, index, item, uniqueNumber));
+      contents.apply(new FilteredDynamicContext(context, index, item, itemPattern, indexPattern, uniqueNumber));
       if (first) {
         first = !((PrefixedContext) context).isPrefixApplied();
       }
@@ -89,6 +122,20 @@ public class ForEachSqlNode implements SqlNode {
     return true;
   }
 
+  private void applyArray(DynamicContext context, Iterable<?> iterable) {
+    List<Object> elements = new ArrayList<>();
+    for (Object o : iterable) {
+      // the values of a map, the same as item
+      elements.add(o instanceof Map.Entry ? ((Map.Entry<?, ?>) o).getValue() : o);
+    }
+    String name = itemizeItem("array", context.getUniqueNumber());
+    context.bind(name, elements.toArray());
+    applyOpen(context);
+    context.appendSql("#{" + name + ",typeHandler=" + ArrayTypeHandler.class.getName()
+        + (elementJdbcType == null ? "" : ",jdbcType=" + elementJdbcType.name()) + "}");
+    applyClose(context);
+  }
+
   private void applyIndex(DynamicContext context, Object o, int i) {
     if (index != null) {
       context.bind(index, o);
@@ -119,18 +166,36 @@ public class ForEachSqlNode implements SqlNode {
     return ITEM_PREFIX + item + "_" + i;
   }
 
+  private static boolean isBlank(String sql) {
+    for (int i = 0; i < sql.length(); i++) {
+      if (sql.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Pattern itemPattern(String item) {
+    return Pattern.compile("^\\s*" + item + "(?![^.,:\\s])");
+  }
+
   private static class FilteredDynamicContext extends DynamicContext {
     private final DynamicContext delegate;
     private final int index;
     private final String itemIndex;
     private final String item;
+    private final Pattern itemPattern;
+    private final Pattern itemIndexPattern;
 
-    public FilteredDynamicContext(Configuration configuration,DynamicContext delegate, String itemIndex, String item, int i) {
-      super(configuration, null);
+    public FilteredDynamicContext(DynamicContext delegate, String itemIndex, String item,
+        Pattern itemPattern, Pattern itemIndexPattern, int i) {
+      super();
       this.delegate = delegate;
       this.index = i;
       this.itemIndex = itemIndex;
       this.item = item;
+      this.itemPattern = itemPattern;
+      this.itemIndexPattern = itemIndexPattern;
     }
 
     @Override
@@ -150,17 +215,45 @@ public class ForEachSqlNode implements SqlNode {
 
     @Override
     public void appendSql(String sql) {
-      GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> {
-        String newContent = content.replaceFirst("^\\s*" + item + "(?![^.,:\\s])", itemizeItem(item, index));
-        if (itemIndex != null && newContent.equals(content)) {
-          newContent = content.replaceFirst("^\\s*" + itemIndex + "(?![^.,:\\s])", itemizeItem(itemIndex, index));
-        }
-        return "#{" + newContent + "}";
-      });
+      if (sql != null && sql.indexOf("#{") < 0) {
+        delegate.appendSql(sql);
+        return;
+      }
+      GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> "#{" + itemize(content) + "}");
 
       delegate.appendSql(parser.parse(sql));
     }
 
+    @Override
+    void appendSql(SqlFragment fragment) {
+      if (!isCompiled()) {
+        super.appendSql(fragment);
+        return;
+      }
+      if (fragment.getParameters().isEmpty()) {
+        delegate.appendSql(fragment);
+        return;
+      }
+      List<String> parameters = new ArrayList<>(fragment.getParameters().size());
+      for (String content : fragment.getParameters()) {
+        parameters.add(itemize(content));
+      }
+      delegate.appendSql(new SqlFragment(fragment.getText(), parameters));
+    }
+
+    private String itemize(String content) {
+      String newContent = itemPattern.matcher(content).replaceFirst(itemizeItem(item, index));
+      if (itemIndex != null && newContent.equals(content)) {
+        newContent = itemIndexPattern.matcher(content).replaceFirst(itemizeItem(itemIndex, index));
+      }
+      return newContent;
+    }
+
+    @Override
+    boolean isCompiled() {
+      return delegate.isCompiled();
+    }
+
     @Override
     public int getUniqueNumber() {
       return delegate.getUniqueNumber();
@@ -175,7 +268,7 @@ public class ForEachSqlNode implements SqlNode {
     private boolean prefixApplied;
 
     public PrefixedContext(DynamicContext delegate, String prefix) {
-      super(configuration, null);
+      super();
       this.delegate = delegate;
       this.prefix = prefix;
       this.prefixApplied = false;
@@ -197,13 +290,31 @@ public class ForEachSqlNode implements SqlNode {
 
     @Override
     public void appendSql(String sql) {
-      if (!prefixApplied && sql != null && sql.trim().length() > 0) {
+      if (!prefixApplied && sql != null && !isBlank(sql)) {
         delegate.appendSql(prefix);
         prefixApplied = true;
       }
       delegate.appendSql(sql);
     }
 
+    @Override
+    void appendSql(SqlFragment fragment) {
+      if (!isCompiled()) {
+        super.appendSql(fragment);
+        return;
+      }
+      if (!prefixApplied && !isBlank(fragment.getText())) {
+        delegate.appendSql(prefix);
+        prefixApplied = true;
+      }
+      delegate.appendSql(fragment);
+    }
+
+    @Override
+    boolean isCompiled() {
+      return delegate.isCompiled();
+    }
+
     @Override
     public String getSql() {
       return delegate.getSql();
@@ -35,13 +35,26 @@ public final class OgnlCache {
   private static final OgnlMemberAccess MEMBER_ACCESS = new OgnlMemberAccess();
   private static final OgnlClassResolver CLASS_RESOLVER = new OgnlClassResolver();
   private static final Map<String, Object> expressionCache = new ConcurrentHashMap<>();
+  private static final Map<String, Object> simpleExpressionCache = new ConcurrentHashMap<>();
+  private static final Object NOT_SIMPLE = new Object();
 
   private OgnlCache() {
     // Prevent Instantiation of Static Class
   }
 
   public static Object getValue(String expression, Object root) {
+    Object simpleExpression = simpleExpressionCache.get(expression);
+    if (simpleExpression == null) {
+      simpleExpression = SimpleExpression.compile(expression);
+      simpleExpressionCache.put(expression, simpleExpression == null ? NOT_SIMPLE : simpleExpression);
+    }
     try {
+      if (simpleExpression instanceof SimpleExpression) {
+        Object value = ((SimpleExpression) simpleExpression).getValue(root);
+        if (value != SimpleExpression.UNRESOLVED) {
+          return value;
+        }
+      }
       Map context = Ognl.createDefaultContext(root, MEMBER_ACCESS, CLASS_RESOLVER, null);
       return Ognl.getValue(parseExpression(expression), context, root);
     } catch (OgnlException e) {
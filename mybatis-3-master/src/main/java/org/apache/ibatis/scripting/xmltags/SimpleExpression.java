@@ -0,0 +1,497 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ognl.OgnlException;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+
+/**
+ * An OGNL expression of the kind usually found in <code>test</code> attributes, evaluated without OGNL.
+ * <p>
+ * Supported are property paths like <code>user.name</code>, a trailing <code>size()</code>, <code>isEmpty()</code>
+ * or <code>length()</code> call, <code>null</code>, <code>true</code>, <code>false</code>, integer and string literals,
+ * the comparison operators, <code>!</code>/<code>not</code> and <code>and</code>/<code>or</code> without parentheses.
+ * Properties are read with the {@link Reflector} of the target.
+ * <p>
+ * An evaluation returns {@link #UNRESOLVED} when OGNL could behave differently than this class,
+ * e.g. when it would convert the operands of a comparison, and the expression must then be evaluated by OGNL.
+ * Expressions with a single-character literal in single quotes, which OGNL reads as a char, are not supported.
+ * An exception thrown by a getter is not retried with OGNL but thrown as an {@link OgnlException}.
+ *
+ * @see OgnlCache
+ */
+final class SimpleExpression {
+
+  static final Object UNRESOLVED = new Object();
+
+  private static final ReflectorFactory REFLECTOR_FACTORY = new DefaultReflectorFactory();
+  private static final DynamicContext.ContextAccessor CONTEXT_ACCESSOR = new DynamicContext.ContextAccessor();
+  // OGNL operators and keywords that are not supported
+  private static final Set<String> UNSUPPORTED_KEYWORDS = new HashSet<>(Arrays.asList(
+      "in", "instanceof", "new", "band", "bor", "xor", "shl", "shr", "ushr"));
+  // the properties OGNL resolves specially on maps
+  private static final Set<String> MAP_PROPERTIES = new HashSet<>(Arrays.asList(
+      "size", "isEmpty", "keys", "keySet", "values"));
+
+  private final Node root;
+
+  private SimpleExpression(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Compiles an expression.
+   *
+   * @param expression the OGNL expression
+   * @return the compiled expression, or <code>null</code> if it is not supported
+   */
+  static SimpleExpression compile(String expression) {
+    List<String> tokens = tokenize(expression);
+    if (tokens == null || tokens.isEmpty()) {
+      return null;
+    }
+    Parser parser = new Parser(tokens);
+    Node node = parser.parseOr();
+    return node != null && parser.position == tokens.size() ? new SimpleExpression(node) : null;
+  }
+
+  /**
+   * Evaluates the expression.
+   *
+   * @param root the root object, usually the bindings of a {@link DynamicContext}
+   * @return the value, or {@link #UNRESOLVED} if the expression must be evaluated by OGNL
+   */
+  Object getValue(Object root) throws OgnlException {
+    try {
+      return this.root.getValue(root);
+    } catch (PropertyException e) {
+      // the getter was called, so OGNL must not call it again
+      throw new OgnlException(e.property, e.getCause());
+    } catch (RuntimeException e) {
+      // let OGNL report the error
+      return UNRESOLVED;
+    }
+  }
+
+  private static List<String> tokenize(String expression) {
+    final List<String> tokens = new ArrayList<>();
+    final int length = expression.length();
+    int i = 0;
+    while (i < length) {
+      final char c = expression.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (Character.isJavaIdentifierStart(c)) {
+        int end = i + 1;
+        while (end < length && (Character.isJavaIdentifierPart(expression.charAt(end)) || expression.charAt(end) == '.')) {
+          end++;
+        }
+        if (end + 1 < length && expression.charAt(end) == '(' && expression.charAt(end + 1) == ')') {
+          end += 2;
+        }
+        tokens.add(expression.substring(i, end));
+        i = end;
+      } else if (Character.isDigit(c)) {
+        int end = i + 1;
+        while (end < length && Character.isDigit(expression.charAt(end))) {
+          end++;
+        }
+        if (end < length && (Character.isJavaIdentifierPart(expression.charAt(end)) || expression.charAt(end) == '.')) {
+          // a long, float or double literal
+          return null;
+        }
+        tokens.add(expression.substring(i, end));
+        i = end;
+      } else if (c == '\'' || c == '"') {
+        final int end = expression.indexOf(c, i + 1);
+        if (end < 0 || expression.lastIndexOf('\\', end) > i) {
+          return null;
+        }
+        tokens.add(expression.substring(i, end + 1));
+        i = end + 1;
+      } else if (i + 1 < length && isOperator(expression.substring(i, i + 2))) {
+        tokens.add(expression.substring(i, i + 2));
+        i += 2;
+      } else if (c == '!' || c == '<' || c == '>') {
+        tokens.add(String.valueOf(c));
+        i++;
+      } else {
+        return null;
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean isOperator(String token) {
+    switch (token) {
+      case "==":
+      case "!=":
+      case "<=":
+      case ">=":
+      case "&&":
+      case "||":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean booleanValue(Object value) {
+    // the same as OgnlOps.booleanValue() of OGNL 3.2
+    if (value == null) {
+      return false;
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    if (value.getClass() == String.class) {
+      return Boolean.parseBoolean((String) value);
+    }
+    if (value instanceof Character) {
+      return (Character) value != 0;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue() != 0;
+    }
+    return true;
+  }
+
+  private static boolean isIntegral(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+  private interface Node {
+    Object getValue(Object root);
+  }
+
+  private static class Parser {
+    private final List<String> tokens;
+    private int position;
+
+    Parser(List<String> tokens) {
+      this.tokens = tokens;
+    }
+
+    private String peek() {
+      return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private boolean accept(String... candidates) {
+      final String token = peek();
+      for (String candidate : candidates) {
+        if (candidate.equals(token)) {
+          position++;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    Node parseOr() {
+      Node left = parseAnd();
+      while (left != null && accept("or", "||")) {
+        final Node first = left;
+        final Node second = parseAnd();
+        if (second == null) {
+          return null;
+        }
+        left = root -> {
+          Object value = first.getValue(root);
+          return value == UNRESOLVED || booleanValue(value) ? value : second.getValue(root);
+        };
+      }
+      return left;
+    }
+
+    private Node parseAnd() {
+      Node left = parseNot();
+      while (left != null && accept("and", "&&")) {
+        final Node first = left;
+        final Node second = parseNot();
+        if (second == null) {
+          return null;
+        }
+        left = root -> {
+          Object value = first.getValue(root);
+          return value == UNRESOLVED || !booleanValue(value) ? value : second.getValue(root);
+        };
+      }
+      return left;
+    }
+
+    private Node parseNot() {
+      if (accept("!", "not")) {
+        final Node operand = parseNot();
+        if (operand == null) {
+          return null;
+        }
+        return root -> {
+          Object value = operand.getValue(root);
+          return value == UNRESOLVED ? value : !booleanValue(value);
+        };
+      }
+      return parseComparison();
+    }
+
+    private Node parseComparison() {
+      final Node left = parseOperand();
+      final String operator = peek();
+      if (left == null || operator == null) {
+        return left;
+      }
+      final Comparison comparison = Comparison.of(operator);
+      if (comparison == null) {
+        return left;
+      }
+      position++;
+      final Node right = parseOperand();
+      if (right == null) {
+        return null;
+      }
+      return root -> {
+        Object leftValue = left.getValue(root);
+        if (leftValue == UNRESOLVED) {
+          return leftValue;
+        }
+        Object rightValue = right.getValue(root);
+        return rightValue == UNRESOLVED ? rightValue : comparison.compare(leftValue, rightValue);
+      };
+    }
+
+    private Node parseOperand() {
+      final String token = peek();
+      if (token == null) {
+        return null;
+      }
+      position++;
+      final char first = token.charAt(0);
+      if (first == '\'' && token.length() == 3) {
+        // a char literal in OGNL, which compares to strings as a number
+        return null;
+      }
+      if (first == '\'' || first == '"') {
+        final String value = token.substring(1, token.length() - 1);
+        return root -> value;
+      }
+      if (Character.isDigit(first)) {
+        final Integer value;
+        try {
+          value = Integer.valueOf(token);
+        } catch (NumberFormatException e) {
+          return null;
+        }
+        return root -> value;
+      }
+      if (!Character.isJavaIdentifierStart(first)) {
+        return null;
+      }
+      switch (token) {
+        case "null":
+          return root -> null;
+        case "true":
+          return root -> Boolean.TRUE;
+        case "false":
+          return root -> Boolean.FALSE;
+        default:
+          return parsePath(token);
+      }
+    }
+
+    private Node parsePath(String token) {
+      String path = token;
+      String method = null;
+      if (path.endsWith("()")) {
+        final int dot = path.lastIndexOf('.');
+        if (dot < 0) {
+          return null;
+        }
+        method = path.substring(dot + 1, path.length() - 2);
+        path = path.substring(0, dot);
+        if (!"size".equals(method) && !"isEmpty".equals(method) && !"length".equals(method)) {
+          return null;
+        }
+      }
+      final String[] properties = path.split("\\.", -1);
+      for (String property : properties) {
+        if (property.isEmpty() || !Character.isJavaIdentifierStart(property.charAt(0))
+            || UNSUPPORTED_KEYWORDS.contains(property) || Comparison.of(property) != null
+            || "and".equals(property) || "or".equals(property) || "not".equals(property)) {
+          return null;
+        }
+      }
+      return new PathNode(properties, method);
+    }
+  }
+
+  private static class PathNode implements Node {
+    private final String[] properties;
+    private final String method;
+
+    PathNode(String[] properties, String method) {
+      this.properties = properties;
+      this.method = method;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      Object value = root;
+      for (String property : properties) {
+        value = getProperty(value, property);
+        if (value == UNRESOLVED) {
+          return value;
+        }
+      }
+      return method == null ? value : invoke(value);
+    }
+
+    private Object getProperty(Object target, String property) {
+      if (target instanceof Map && !(target instanceof DynamicContext.ContextMap) && MAP_PROPERTIES.contains(property)) {
+        return UNRESOLVED;
+      }
+      if (target == null || target instanceof Collection || target instanceof Iterator
+          || target instanceof Enumeration || target.getClass().isArray()) {
+        return UNRESOLVED;
+      }
+      Reflector reflector = null;
+      if (!(target instanceof Map)) {
+        reflector = REFLECTOR_FACTORY.findForClass(target.getClass());
+        if (!reflector.hasGetter(property)) {
+          return UNRESOLVED;
+        }
+      }
+      try {
+        if (target instanceof DynamicContext.ContextMap) {
+          return CONTEXT_ACCESSOR.getProperty(null, target, property);
+        } else if (target instanceof Map) {
+          return ((Map<?, ?>) target).get(property);
+        } else {
+          return reflector.getGetInvoker(property).invoke(target, null);
+        }
+      } catch (Throwable t) {
+        throw new PropertyException(property, ExceptionUtil.unwrapThrowable(t));
+      }
+    }
+
+    private Object invoke(Object target) {
+      if (target instanceof Collection) {
+        final Collection<?> collection = (Collection<?>) target;
+        return "size".equals(method) ? (Object) collection.size() : "isEmpty".equals(method) ? (Object) collection.isEmpty() : UNRESOLVED;
+      }
+      if (target instanceof Map) {
+        final Map<?, ?> map = (Map<?, ?>) target;
+        return "size".equals(method) ? (Object) map.size() : "isEmpty".equals(method) ? (Object) map.isEmpty() : UNRESOLVED;
+      }
+      if (target instanceof String) {
+        final String string = (String) target;
+        return "length".equals(method) ? (Object) string.length() : "isEmpty".equals(method) ? (Object) string.isEmpty() : UNRESOLVED;
+      }
+      return UNRESOLVED;
+    }
+  }
+
+  /**
+   * Thrown when reading a property failed, e.g. because its getter threw an exception.
+   */
+  private static final class PropertyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final String property;
+
+    PropertyException(String property, Throwable cause) {
+      super(cause);
+      this.property = property;
+    }
+  }
+
+  private enum Comparison {
+    EQ, NEQ, LT, LTE, GT, GTE;
+
+    static Comparison of(String operator) {
+      switch (operator) {
+        case "==":
+        case "eq":
+          return EQ;
+        case "!=":
+        case "neq":
+          return NEQ;
+        case "<":
+        case "lt":
+          return LT;
+        case "<=":
+        case "lte":
+          return LTE;
+        case ">":
+        case "gt":
+          return GT;
+        case ">=":
+        case "gte":
+          return GTE;
+        default:
+          return null;
+      }
+    }
+
+    Object compare(Object left, Object right) {
+      if (this == EQ || this == NEQ) {
+        final Object equal = equal(left, right);
+        return equal == UNRESOLVED ? equal : (Boolean) equal == (this == EQ);
+      }
+      if (!isIntegral(left) || !isIntegral(right)) {
+        return UNRESOLVED;
+      }
+      final int result = Long.compare(((Number) left).longValue(), ((Number) right).longValue());
+      switch (this) {
+        case LT:
+          return result < 0;
+        case LTE:
+          return result <= 0;
+        case GT:
+          return result > 0;
+        default:
+          return result >= 0;
+      }
+    }
+
+    private static Object equal(Object left, Object right) {
+      if (left == null || right == null) {
+        return left == right;
+      }
+      if (left instanceof String && right instanceof String
+          || left instanceof Boolean && right instanceof Boolean
+          || left instanceof Enum && left.getClass() == right.getClass()) {
+        return left.equals(right);
+      }
+      if (isIntegral(left) && isIntegral(right)) {
+        return ((Number) left).longValue() == ((Number) right).longValue();
+      }
+      return UNRESOLVED;
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.parsing.GenericTokenParser;
+
+/**
+ * A piece of SQL whose <code>#{...}</code> parameters were already replaced by <code>?</code>.
+ * Compiled dynamic SQL appends fragments instead of text, so the generated SQL does not have to be parsed again.
+ *
+ * @see DynamicContext#appendSql(SqlFragment)
+ */
+final class SqlFragment {
+
+  private final String sql;
+  private final String text;
+  private final List<String> parameters;
+
+  private SqlFragment(String sql, String text, List<String> parameters) {
+    this.sql = sql;
+    this.text = text;
+    this.parameters = parameters;
+  }
+
+  /**
+   * Creates a fragment for SQL that was assembled from other fragments.
+   *
+   * @param text the SQL with a <code>?</code> per parameter
+   * @param parameters the contents of the <code>#{...}</code> parameters, in the order of their <code>?</code>
+   */
+  SqlFragment(String text, List<String> parameters) {
+    this(null, text, parameters);
+  }
+
+  static SqlFragment parse(String sql) {
+    if (sql == null || sql.indexOf("#{") < 0) {
+      return new SqlFragment(sql, sql == null ? "" : sql, Collections.emptyList());
+    }
+    final List<String> parameters = new ArrayList<>();
+    final String text = new GenericTokenParser("#{", "}", content -> {
+      parameters.add(content);
+      return "?";
+    }).parse(sql);
+    return new SqlFragment(sql, text, Collections.unmodifiableList(parameters));
+  }
+
+  /**
+   * Gets the SQL this fragment was parsed from, which is what is appended when the SQL is not compiled.
+   * It is <code>null</code> for fragments that were assembled by compiled SQL nodes.
+   */
+  String getSql() {
+    return sql;
+  }
+
+  String getText() {
+    return text;
+  }
+
+  List<String> getParameters() {
+    return parameters;
+  }
+
+}
@@ -20,14 +20,16 @@ package org.apache.ibatis.scripting.xmltags;
  */
 public class StaticTextSqlNode implements SqlNode {
   private final String text;
+  private final SqlFragment fragment;
 
   public StaticTextSqlNode(String text) {
     this.text = text;
+    this.fragment = SqlFragment.parse(text);
   }
 
   @Override
   public boolean apply(DynamicContext context) {
-    context.appendSql(text);
+    context.appendSql(fragment);
     return true;
   }
 
@@ -32,6 +32,8 @@ public class TrimSqlNode implements SqlNode {
   private final SqlNode contents;
   private final String prefix;
   private final String suffix;
+  private final SqlFragment prefixFragment;
+  private final SqlFragment suffixFragment;
   private final List<String> prefixesToOverride;
   private final List<String> suffixesToOverride;
   private final Configuration configuration;
@@ -47,6 +49,8 @@ public class TrimSqlNode implements SqlNode {
     this.suffix = suffix;
     this.suffixesToOverride = suffixesToOverride;
     this.configuration = configuration;
+    this.prefixFragment = prefix == null ? null : SqlFragment.parse(prefix);
+    this.suffixFragment = suffix == null ? null : SqlFragment.parse(suffix);
   }
 
   @Override
@@ -69,28 +73,79 @@ public class TrimSqlNode implements SqlNode {
     return Collections.emptyList();
   }
 
+  private static void trim(StringBuilder sql) {
+    int end = sql.length();
+    while (end > 0 && sql.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    sql.setLength(end);
+    sql.delete(0, firstNonWhitespace(sql));
+  }
+
+  private static int firstNonWhitespace(CharSequence s) {
+    int start = 0;
+    while (start < s.length() && s.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimmedLength(String s) {
+    int end = s.length();
+    while (end > 0 && s.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return Math.max(end - firstNonWhitespace(s), 0);
+  }
+
+  /**
+   * Compares a region of the SQL with a region of an override, like <code>toUpperCase(Locale.ENGLISH)</code> on the SQL
+   * but without copying it. The overrides are upper case already.
+   */
+  private static boolean regionMatches(CharSequence sql, int offset, String override, int overrideOffset, int length) {
+    if (offset + length > sql.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = sql.charAt(offset + i);
+      char o = override.charAt(overrideOffset + i);
+      if (c != o && Character.toUpperCase(c) != o) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private class FilteredDynamicContext extends DynamicContext {
     private DynamicContext delegate;
     private boolean prefixApplied;
     private boolean suffixApplied;
     private StringBuilder sqlBuffer;
+    // the parameters of the buffered SQL when it is compiled
+    private final List<String> parameters;
 
     public FilteredDynamicContext(DynamicContext delegate) {
-      super(configuration, null);
+      super();
       this.delegate = delegate;
       this.prefixApplied = false;
       this.suffixApplied = false;
       this.sqlBuffer = new StringBuilder();
+      this.parameters = delegate.isCompiled() ? new ArrayList<>() : null;
     }
 
     public void applyAll() {
-      sqlBuffer = new StringBuilder(sqlBuffer.toString().trim());
-      String trimmedUppercaseSql = sqlBuffer.toString().toUpperCase(Locale.ENGLISH);
-      if (trimmedUppercaseSql.length() > 0) {
-        applyPrefix(sqlBuffer, trimmedUppercaseSql);
-        applySuffix(sqlBuffer, trimmedUppercaseSql);
+      trim(sqlBuffer);
+      if (sqlBuffer.length() > 0) {
+        // the overrides are matched against the trimmed SQL before the prefix is applied
+        int suffixLength = matchSuffix(sqlBuffer);
+        applyPrefix(sqlBuffer);
+        applySuffix(sqlBuffer, suffixLength);
+      }
+      if (parameters == null) {
+        delegate.appendSql(sqlBuffer.toString());
+      } else {
+        delegate.appendSql(new SqlFragment(sqlBuffer.toString(), parameters));
       }
-      delegate.appendSql(sqlBuffer.toString());
     }
 
     @Override
@@ -110,7 +165,26 @@ public class TrimSqlNode implements SqlNode {
 
     @Override
     public void appendSql(String sql) {
-      sqlBuffer.append(sql);
+      if (parameters != null && sql != null && sql.contains("#{")) {
+        appendSql(SqlFragment.parse(sql));
+      } else {
+        sqlBuffer.append(sql);
+      }
+    }
+
+    @Override
+    void appendSql(SqlFragment fragment) {
+      if (parameters == null) {
+        super.appendSql(fragment);
+      } else {
+        sqlBuffer.append(fragment.getText());
+        parameters.addAll(fragment.getParameters());
+      }
+    }
+
+    @Override
+    boolean isCompiled() {
+      return parameters != null;
     }
 
     @Override
@@ -118,40 +192,55 @@ public class TrimSqlNode implements SqlNode {
       return delegate.getSql();
     }
 
-    private void applyPrefix(StringBuilder sql, String trimmedUppercaseSql) {
+    private void applyPrefix(StringBuilder sql) {
       if (!prefixApplied) {
         prefixApplied = true;
         if (prefixesToOverride != null) {
           for (String toRemove : prefixesToOverride) {
-            if (trimmedUppercaseSql.startsWith(toRemove)) {
-              sql.delete(0, toRemove.trim().length());
+            if (regionMatches(sql, 0, toRemove, 0, toRemove.length())) {
+              sql.delete(0, trimmedLength(toRemove));
               break;
             }
           }
         }
         if (prefix != null) {
           sql.insert(0, " ");
-          sql.insert(0, prefix);
+          if (parameters == null) {
+            sql.insert(0, prefix);
+          } else {
+            sql.insert(0, prefixFragment.getText());
+            parameters.addAll(0, prefixFragment.getParameters());
+          }
         }
       }
     }
 
-    private void applySuffix(StringBuilder sql, String trimmedUppercaseSql) {
-      if (!suffixApplied) {
-        suffixApplied = true;
-        if (suffixesToOverride != null) {
-          for (String toRemove : suffixesToOverride) {
-            if (trimmedUppercaseSql.endsWith(toRemove) || trimmedUppercaseSql.endsWith(toRemove.trim())) {
-              int start = sql.length() - toRemove.trim().length();
-              int end = sql.length();
-              sql.delete(start, end);
-              break;
-            }
+    private int matchSuffix(StringBuilder sql) {
+      if (suffixesToOverride != null) {
+        for (String toRemove : suffixesToOverride) {
+          // the SQL is trimmed, so only the trimmed override can match
+          int length = trimmedLength(toRemove);
+          int offset = sql.length() - length;
+          if (offset >= 0 && regionMatches(sql, offset, toRemove, firstNonWhitespace(toRemove), length)) {
+            return length;
           }
         }
+      }
+      return 0;
+    }
+
+    private void applySuffix(StringBuilder sql, int suffixLength) {
+      if (!suffixApplied) {
+        suffixApplied = true;
+        sql.setLength(sql.length() - suffixLength);
         if (suffix != null) {
           sql.append(" ");
-          sql.append(suffix);
+          if (parameters == null) {
+            sql.append(suffix);
+          } else {
+            sql.append(suffixFragment.getText());
+            parameters.addAll(suffixFragment.getParameters());
+          }
         }
       }
     }
@@ -26,6 +26,7 @@ import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.scripting.defaults.RawSqlSource;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -65,11 +66,12 @@ public class XMLScriptBuilder extends BaseBuilder {
 
   public SqlSource parseScriptNode() {
     MixedSqlNode rootSqlNode = parseDynamicTags(context);
+    boolean shrinkWhitespaces = context.getBooleanAttribute("shrinkWhitespaces", configuration.isShrinkWhitespacesInSql());
     SqlSource sqlSource;
     if (isDynamic) {
-      sqlSource = new DynamicSqlSource(configuration, rootSqlNode);
+      sqlSource = new DynamicSqlSource(configuration, rootSqlNode, shrinkWhitespaces);
     } else {
-      sqlSource = new RawSqlSource(configuration, rootSqlNode, parameterType);
+      sqlSource = new RawSqlSource(configuration, rootSqlNode, parameterType, shrinkWhitespaces);
     }
     return sqlSource;
   }
@@ -176,7 +178,9 @@ public class XMLScriptBuilder extends BaseBuilder {
       String open = nodeToHandle.getStringAttribute("open");
       String close = nodeToHandle.getStringAttribute("close");
       String separator = nodeToHandle.getStringAttribute("separator");
-      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
+      boolean arrayBinding = nodeToHandle.getBooleanAttribute("arrayBinding", false);
+      JdbcType elementJdbcType = resolveJdbcType(nodeToHandle.getStringAttribute("elementJdbcType"));
+      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator, arrayBinding, elementJdbcType);
       targetContents.add(forEachSqlNode);
     }
   }
@@ -0,0 +1,375 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 列式结果：每列一个基本类型数组，适合大量数值行的统计查询。
+ * A columnar result. Use it as the result type of a select statement (or the return type of a mapper method)
+ * to read the whole result set into one primitive array per column instead of one object per row.
+ * <ul>
+ * <li>TINYINT, SMALLINT and INTEGER columns are read with {@link ResultSet#getInt(int)} into an <code>int[]</code></li>
+ * <li>BIGINT columns, and DECIMAL/NUMERIC columns without scale of up to 18 digits,
+ * are read with {@link ResultSet#getLong(int)} into a <code>long[]</code></li>
+ * <li>REAL, FLOAT and DOUBLE columns are read with {@link ResultSet#getDouble(int)} into a <code>double[]</code></li>
+ * <li>Character columns are dictionary encoded: an <code>int[]</code> of codes into a list of distinct strings</li>
+ * <li>Other columns are read with {@link ResultSet#getObject(int)}</li>
+ * </ul>
+ * Nulls are recorded in a bitmap per column. Result mappings and type handlers are not used.
+ * <p>
+ * The arrays returned by this class are not copied and must not be modified.
+ *
+ * @since 3.5.2
+ */
+public class ColumnBatch implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  public enum ColumnType {
+    INT, LONG, DOUBLE, STRING, OBJECT
+  }
+
+  private final List<String> columnNames;
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
+  private final ColumnType[] columnTypes;
+  private final Object[] values;
+  private final BitSet[] nulls;
+  private final List<List<String>> dictionaries = new ArrayList<>();
+  private transient Map<String, Integer>[] dictionaryCodes;
+  private int rowCount;
+
+  @SuppressWarnings("unchecked")
+  private ColumnBatch(List<String> columnNames, ColumnType[] columnTypes, int capacity) {
+    this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+    this.columnTypes = columnTypes;
+    this.values = new Object[columnTypes.length];
+    this.nulls = new BitSet[columnTypes.length];
+    this.dictionaryCodes = new Map[columnTypes.length];
+    for (int i = 0; i < columnTypes.length; i++) {
+      // the first matching column wins, same as ResultSet#findColumn
+      columnIndexes.putIfAbsent(columnNames.get(i).toUpperCase(Locale.ENGLISH), i);
+      values[i] = newColumn(columnTypes[i], capacity);
+      dictionaries.add(columnTypes[i] == ColumnType.STRING ? new ArrayList<>() : null);
+      if (columnTypes[i] == ColumnType.STRING) {
+        dictionaryCodes[i] = new HashMap<>();
+      }
+    }
+  }
+
+  /**
+   * Reads the remaining rows of a result set.
+   *
+   * @param rs the result set
+   * @param columnNames the names of the columns, in the order of the result set
+   * @param maxRows the maximum number of rows to read
+   * @return the columns of the rows
+   * @throws SQLException if the result set cannot be read
+   */
+  public static ColumnBatch read(ResultSet rs, List<String> columnNames, int maxRows) throws SQLException {
+    final ResultSetMetaData metaData = rs.getMetaData();
+    final ColumnType[] columnTypes = new ColumnType[columnNames.size()];
+    for (int i = 0; i < columnTypes.length; i++) {
+      columnTypes[i] = resolveColumnType(metaData, i + 1);
+    }
+    final ColumnBatch columnBatch = new ColumnBatch(columnNames, columnTypes, Math.min(maxRows, INITIAL_CAPACITY));
+    while (columnBatch.rowCount < maxRows && !rs.isClosed() && rs.next()) {
+      columnBatch.readRow(rs);
+    }
+    columnBatch.trimToSize();
+    return columnBatch;
+  }
+
+  private static ColumnType resolveColumnType(ResultSetMetaData metaData, int column) throws SQLException {
+    switch (metaData.getColumnType(column)) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+        return ColumnType.INT;
+      case Types.BIGINT:
+        return ColumnType.LONG;
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+        final int precision = metaData.getPrecision(column);
+        return metaData.getScale(column) == 0 && precision > 0 && precision <= 18 ? ColumnType.LONG : ColumnType.OBJECT;
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return ColumnType.DOUBLE;
+      case Types.CHAR:
+      case Types.VARCHAR:
+      case Types.LONGVARCHAR:
+      case Types.NCHAR:
+      case Types.NVARCHAR:
+      case Types.LONGNVARCHAR:
+        return ColumnType.STRING;
+      default:
+        return ColumnType.OBJECT;
+    }
+  }
+
+  private static Object newColumn(ColumnType columnType, int capacity) {
+    switch (columnType) {
+      case INT:
+      case STRING:
+        return new int[capacity];
+      case LONG:
+        return new long[capacity];
+      case DOUBLE:
+        return new double[capacity];
+      default:
+        return new Object[capacity];
+    }
+  }
+
+  private void readRow(ResultSet rs) throws SQLException {
+    final int row = rowCount;
+    for (int i = 0; i < columnTypes.length; i++) {
+      if (row == capacity(i)) {
+        grow(i);
+      }
+      final int column = i + 1;
+      switch (columnTypes[i]) {
+        case INT:
+          ((int[]) values[i])[row] = rs.getInt(column);
+          break;
+        case LONG:
+          ((long[]) values[i])[row] = rs.getLong(column);
+          break;
+        case DOUBLE:
+          ((double[]) values[i])[row] = rs.getDouble(column);
+          break;
+        case STRING:
+          final String string = rs.getString(column);
+          ((int[]) values[i])[row] = string == null ? -1 : encode(i, string);
+          break;
+        default:
+          ((Object[]) values[i])[row] = rs.getObject(column);
+          break;
+      }
+      if (rs.wasNull()) {
+        if (nulls[i] == null) {
+          nulls[i] = new BitSet();
+        }
+        nulls[i].set(row);
+      }
+    }
+    rowCount++;
+  }
+
+  private int encode(int column, String string) {
+    final Integer code = dictionaryCodes[column].get(string);
+    if (code != null) {
+      return code;
+    }
+    final List<String> dictionary = dictionaries.get(column);
+    dictionary.add(string);
+    dictionaryCodes[column].put(string, dictionary.size() - 1);
+    return dictionary.size() - 1;
+  }
+
+  private int capacity(int column) {
+    return Array.getLength(values[column]);
+  }
+
+  private void grow(int column) {
+    resize(column, Math.max(capacity(column) * 2, INITIAL_CAPACITY));
+  }
+
+  private void trimToSize() {
+    for (int i = 0; i < values.length; i++) {
+      if (capacity(i) != rowCount) {
+        resize(i, rowCount);
+      }
+      if (dictionaryCodes[i] != null) {
+        dictionaries.set(i, Collections.unmodifiableList(dictionaries.get(i)));
+      }
+    }
+    dictionaryCodes = null;
+  }
+
+  private void resize(int column, int capacity) {
+    final Object array = values[column];
+    if (array instanceof int[]) {
+      values[column] = Arrays.copyOf((int[]) array, capacity);
+    } else if (array instanceof long[]) {
+      values[column] = Arrays.copyOf((long[]) array, capacity);
+    } else if (array instanceof double[]) {
+      values[column] = Arrays.copyOf((double[]) array, capacity);
+    } else {
+      values[column] = Arrays.copyOf((Object[]) array, capacity);
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public int getColumnCount() {
+    return columnTypes.length;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  /**
+   * Gets the 0-based index of a column. Column names are compared case-insensitively.
+   *
+   * @param columnName the column name
+   * @return the column index, or -1 if there is no such column
+   */
+  public int getColumnIndex(String columnName) {
+    final Integer index = columnIndexes.get(columnName.toUpperCase(Locale.ENGLISH));
+    return index == null ? -1 : index;
+  }
+
+  public ColumnType getColumnType(int column) {
+    return columnTypes[column];
+  }
+
+  public boolean isNull(int column, int row) {
+    checkRow(row);
+    return nulls[column] != null && nulls[column].get(row);
+  }
+
+  public int getInt(int column, int row) {
+    checkRow(row);
+    return getInts(column)[row];
+  }
+
+  public long getLong(int column, int row) {
+    checkRow(row);
+    return getLongs(column)[row];
+  }
+
+  public double getDouble(int column, int row) {
+    checkRow(row);
+    return getDoubles(column)[row];
+  }
+
+  public String getString(int column, int row) {
+    checkRow(row);
+    final int code = getStringCodes(column)[row];
+    return code < 0 ? null : dictionaries.get(column).get(code);
+  }
+
+  /**
+   * Gets a value of any column type, boxed.
+   *
+   * @param column the 0-based column index
+   * @param row the 0-based row index
+   * @return the value, or <code>null</code> if the value is SQL NULL
+   */
+  public Object getObject(int column, int row) {
+    if (isNull(column, row)) {
+      return null;
+    }
+    switch (columnTypes[column]) {
+      case INT:
+        return getInt(column, row);
+      case LONG:
+        return getLong(column, row);
+      case DOUBLE:
+        return getDouble(column, row);
+      case STRING:
+        return getString(column, row);
+      default:
+        return ((Object[]) values[column])[row];
+    }
+  }
+
+  /**
+   * Gets the values of an INT column. SQL NULL values are 0, see {@link #isNull(int, int)}.
+   *
+   * @param column the 0-based column index
+   * @return the values, one per row
+   */
+  public int[] getInts(int column) {
+    return (int[]) getColumn(column, ColumnType.INT);
+  }
+
+  /**
+   * Gets the values of a LONG column. SQL NULL values are 0, see {@link #isNull(int, int)}.
+   *
+   * @param column the 0-based column index
+   * @return the values, one per row
+   */
+  public long[] getLongs(int column) {
+    return (long[]) getColumn(column, ColumnType.LONG);
+  }
+
+  /**
+   * Gets the values of a DOUBLE column. SQL NULL values are 0, see {@link #isNull(int, int)}.
+   *
+   * @param column the 0-based column index
+   * @return the values, one per row
+   */
+  public double[] getDoubles(int column) {
+    return (double[]) getColumn(column, ColumnType.DOUBLE);
+  }
+
+  /**
+   * Gets the dictionary codes of a STRING column. SQL NULL values are -1.
+   *
+   * @param column the 0-based column index
+   * @return the indexes into {@link #getDictionary(int)}, one per row
+   */
+  public int[] getStringCodes(int column) {
+    return (int[]) getColumn(column, ColumnType.STRING);
+  }
+
+  /**
+   * Gets the distinct values of a STRING column, in the order of their first appearance.
+   *
+   * @param column the 0-based column index
+   * @return the distinct values
+   */
+  public List<String> getDictionary(int column) {
+    getColumn(column, ColumnType.STRING);
+    return dictionaries.get(column);
+  }
+
+  private Object getColumn(int column, ColumnType columnType) {
+    if (columnTypes[column] != columnType) {
+      throw new IllegalArgumentException("Column '" + columnNames.get(column) + "' is of type " + columnTypes[column]
+          + ", not " + columnType + ".");
+    }
+    return values[column];
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row: " + row + ", row count: " + rowCount);
+    }
+  }
+
+}
@@ -25,11 +25,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
+import org.apache.ibatis.builder.LazySqlSource;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
@@ -37,6 +43,7 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
@@ -121,6 +128,26 @@ public class Configuration {
   protected boolean useGeneratedKeys;
   //使用列标签代替列名
   protected boolean useColumnLabel = true;
+  //按列索引读取结果集（需要所有 TypeHandler 正确实现基于列索引的 getResult 方法）
+  protected boolean useColumnIndex;
+  //读取结果集的同时在线程池中并行映射行（仅适用于不含嵌套映射和嵌套查询的结果映射）
+  protected boolean parallelRowMappingEnabled;
+  //resultType 为 map 时，每行使用共享键索引的紧凑 Map（CompactRowMap）代替 HashMap
+  protected boolean compactMapRowsEnabled;
+  //缓存结果集的列信息（列名、JDBC 类型、Java 类型），同一语句再次执行时只校验列数
+  protected boolean resultSetMetaDataCacheEnabled;
+  //动态 SQL 在应用 SqlNode 时直接生成 ? 占位符和参数列表，不再重新解析生成的 SQL
+  protected boolean compiledDynamicSqlEnabled;
+  //缓存每个动态 SQL 语句生成的 SQL 和参数映射（按生成的 SQL 和绑定值的类型区分，每个语句最多 64 个）
+  protected boolean dynamicSqlCacheEnabled;
+  //是否压缩SQL中的空白并移除注释
+  protected boolean shrinkWhitespacesInSql;
+  //在 ForkJoinPool 中并行解析 <mappers> 中通过 resource/url 指定的映射文件，之后仍按声明顺序注册到 configuration 中
+  protected boolean parallelMapperParsingEnabled;
+  //XML 映射文件中语句的 SQL（SqlSource 及其 SqlNode 树）在第一次执行时才解析，SQL 中的错误也在那时才抛出；可通过 buildLazySqlSources() 提前构建并校验
+  protected boolean lazySqlSourceEnabled;
+  //是否从编译时生成的 META-INF/mybatis/mappers 索引中加载包下的映射器, 而不扫描类路径
+  protected boolean mapperIndexEnabled;
   //是否启用缓存
   protected boolean cacheEnabled = true;
   //指定当结果集中值为 null 的时候是否调用映射对象的 setter（map 对象时为 put）方法，这对于有 Map.keySet() 依赖或 null 值初始化的时候是有用的
@@ -201,6 +228,12 @@ public class Configuration {
   protected final Map<String, ParameterMap> parameterMaps = new StrictMap<>("Parameter Maps collection");
   //KeyGenerator 的映射   KEY：在 {@link #mappedStatements} 的 KEY 的基础上，跟上 {@link SelectKeyGenerator#SELECT_KEY_SUFFIX}
   protected final Map<String, KeyGenerator> keyGenerators = new StrictMap<>("Key Generators collection");
+  //自动映射计划缓存, 按 resultMap、列前缀以及结果集的列签名缓存, 跨语句执行复用
+  protected final Cache autoMappingCache = new SynchronizedCache(new LruCache(new PerpetualCache("AutoMappings")));
+  //结果集列信息缓存, 按语句 id、SQL 以及结果集序号缓存, 列数一致时跨语句执行复用
+  protected final Cache resultSetMetaDataCache = new SynchronizedCache(new LruCache(new PerpetualCache("ResultSetMetaData")));
+  //并行映射行时使用的线程池, 未设置时第一次使用时创建专用的线程池（空闲线程会自动回收）
+  protected ExecutorService parallelRowMappingExecutor;
 
   //已加载资源( Resource )集合
   protected final Set<String> loadedResources = new HashSet<>();
@@ -501,6 +534,119 @@ public class Configuration {
     this.useColumnLabel = useColumnLabel;
   }
 
+  public boolean isUseColumnIndex() {
+    return useColumnIndex;
+  }
+
+  public void setUseColumnIndex(boolean useColumnIndex) {
+    this.useColumnIndex = useColumnIndex;
+  }
+
+  public boolean isParallelRowMappingEnabled() {
+    return parallelRowMappingEnabled;
+  }
+
+  public void setParallelRowMappingEnabled(boolean parallelRowMappingEnabled) {
+    this.parallelRowMappingEnabled = parallelRowMappingEnabled;
+  }
+
+  /**
+   * Gets the executor that maps rows when parallelRowMappingEnabled is set.
+   * Unless one is set, a dedicated pool with a thread per processor is created on first use; its idle threads time out.
+   *
+   * @return the executor
+   * @since 3.5.2
+   */
+  public synchronized ExecutorService getParallelRowMappingExecutor() {
+    if (parallelRowMappingExecutor == null) {
+      final int threads = Runtime.getRuntime().availableProcessors();
+      final AtomicInteger threadNumber = new AtomicInteger();
+      final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "mybatis-row-mapping-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.allowCoreThreadTimeOut(true);
+      parallelRowMappingExecutor = executor;
+    }
+    return parallelRowMappingExecutor;
+  }
+
+  /**
+   * Sets the executor that maps rows when parallelRowMappingEnabled is set.
+   * Rows are read from the result set on the calling thread, the executor only runs the mapping of buffered rows.
+   *
+   * @param parallelRowMappingExecutor the executor
+   * @since 3.5.2
+   */
+  public synchronized void setParallelRowMappingExecutor(ExecutorService parallelRowMappingExecutor) {
+    this.parallelRowMappingExecutor = parallelRowMappingExecutor;
+  }
+
+  public boolean isCompactMapRowsEnabled() {
+    return compactMapRowsEnabled;
+  }
+
+  public void setCompactMapRowsEnabled(boolean compactMapRowsEnabled) {
+    this.compactMapRowsEnabled = compactMapRowsEnabled;
+  }
+
+  public boolean isResultSetMetaDataCacheEnabled() {
+    return resultSetMetaDataCacheEnabled;
+  }
+
+  public void setResultSetMetaDataCacheEnabled(boolean resultSetMetaDataCacheEnabled) {
+    this.resultSetMetaDataCacheEnabled = resultSetMetaDataCacheEnabled;
+  }
+
+  public boolean isCompiledDynamicSqlEnabled() {
+    return compiledDynamicSqlEnabled;
+  }
+
+  public void setCompiledDynamicSqlEnabled(boolean compiledDynamicSqlEnabled) {
+    this.compiledDynamicSqlEnabled = compiledDynamicSqlEnabled;
+  }
+
+  public boolean isDynamicSqlCacheEnabled() {
+    return dynamicSqlCacheEnabled;
+  }
+
+  public void setDynamicSqlCacheEnabled(boolean dynamicSqlCacheEnabled) {
+    this.dynamicSqlCacheEnabled = dynamicSqlCacheEnabled;
+  }
+
+  public boolean isShrinkWhitespacesInSql() {
+    return shrinkWhitespacesInSql;
+  }
+
+  public void setShrinkWhitespacesInSql(boolean shrinkWhitespacesInSql) {
+    this.shrinkWhitespacesInSql = shrinkWhitespacesInSql;
+  }
+
+  public boolean isParallelMapperParsingEnabled() {
+    return parallelMapperParsingEnabled;
+  }
+
+  public void setParallelMapperParsingEnabled(boolean parallelMapperParsingEnabled) {
+    this.parallelMapperParsingEnabled = parallelMapperParsingEnabled;
+  }
+
+  public boolean isLazySqlSourceEnabled() {
+    return lazySqlSourceEnabled;
+  }
+
+  public void setLazySqlSourceEnabled(boolean lazySqlSourceEnabled) {
+    this.lazySqlSourceEnabled = lazySqlSourceEnabled;
+  }
+
+  public boolean isMapperIndexEnabled() {
+    return mapperIndexEnabled;
+  }
+
+  public void setMapperIndexEnabled(boolean mapperIndexEnabled) {
+    this.mapperIndexEnabled = mapperIndexEnabled;
+  }
+
   public LocalCacheScope getLocalCacheScope() {
     return localCacheScope;
   }
@@ -545,6 +691,26 @@ public class Configuration {
     return typeAliasRegistry;
   }
 
+  /**
+   * Gets the cache of automatic mappings shared by all statement executions.
+   * The cache is bounded and evicts the least recently used entries.
+   *
+   * @return the auto-mapping cache
+   */
+  public Cache getAutoMappingCache() {
+    return autoMappingCache;
+  }
+
+  /**
+   * Gets the cache of the column information of result sets, which is used when resultSetMetaDataCacheEnabled is set.
+   * The entries are keyed by statement id, SQL and result set index.
+   *
+   * @return the cache
+   */
+  public Cache getResultSetMetaDataCache() {
+    return resultSetMetaDataCache;
+  }
+
   /**
    * @since 3.2.2
    */
@@ -772,6 +938,22 @@ public class Configuration {
     return mappedStatements.values();
   }
 
+  /**
+   * Builds the SQL of the statements that were registered with a {@link LazySqlSource} (see {@link #isLazySqlSourceEnabled()}).
+   * It can be called from a background thread once the configuration is complete, while statements are being executed.
+   *
+   * @since 3.5.2
+   */
+  public void buildLazySqlSources() {
+    buildAllStatements();
+    //短名称重复时值为 Ambiguity，所以不能直接当作 MappedStatement 遍历
+    for (Object value : mappedStatements.values().toArray()) {
+      if (value instanceof MappedStatement && ((MappedStatement) value).getSqlSource() instanceof LazySqlSource) {
+        ((LazySqlSource) ((MappedStatement) value).getSqlSource()).build();
+      }
+    }
+  }
+
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
     return incompleteStatements;
   }
@@ -15,24 +15,115 @@
  */
 package org.apache.ibatis.type;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Array;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author Clinton Begin
  */
 public class ArrayTypeHandler extends BaseTypeHandler<Object> {
 
+  private static final Map<Class<?>, String> STANDARD_MAPPING;
+
+  static {
+    Map<Class<?>, String> mapping = new HashMap<>();
+    mapping.put(boolean.class, JdbcType.BOOLEAN.name());
+    mapping.put(Boolean.class, JdbcType.BOOLEAN.name());
+    mapping.put(byte.class, JdbcType.TINYINT.name());
+    mapping.put(Byte.class, JdbcType.TINYINT.name());
+    mapping.put(short.class, JdbcType.SMALLINT.name());
+    mapping.put(Short.class, JdbcType.SMALLINT.name());
+    mapping.put(int.class, JdbcType.INTEGER.name());
+    mapping.put(Integer.class, JdbcType.INTEGER.name());
+    mapping.put(long.class, JdbcType.BIGINT.name());
+    mapping.put(Long.class, JdbcType.BIGINT.name());
+    mapping.put(BigInteger.class, JdbcType.BIGINT.name());
+    mapping.put(float.class, JdbcType.FLOAT.name());
+    mapping.put(Float.class, JdbcType.FLOAT.name());
+    mapping.put(double.class, JdbcType.DOUBLE.name());
+    mapping.put(Double.class, JdbcType.DOUBLE.name());
+    mapping.put(BigDecimal.class, JdbcType.NUMERIC.name());
+    mapping.put(String.class, JdbcType.VARCHAR.name());
+    mapping.put(java.sql.Date.class, JdbcType.DATE.name());
+    mapping.put(Time.class, JdbcType.TIME.name());
+    mapping.put(Timestamp.class, JdbcType.TIMESTAMP.name());
+    mapping.put(java.util.Date.class, JdbcType.TIMESTAMP.name());
+    mapping.put(LocalDate.class, JdbcType.DATE.name());
+    mapping.put(LocalTime.class, JdbcType.TIME.name());
+    mapping.put(LocalDateTime.class, JdbcType.TIMESTAMP.name());
+    STANDARD_MAPPING = Collections.unmodifiableMap(mapping);
+  }
+
   public ArrayTypeHandler() {
     super();
   }
 
+  /**
+   * Sets a {@link Array} as is. A Java array is converted with {@link java.sql.Connection#createArrayOf(String, Object[])}
+   * using the SQL type name of its component type, or of its first non null element when the component type is Object.
+   * When neither gives a known type, e.g. for an empty list, the jdbcType of the parameter is used as the type of the elements.
+   */
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Object parameter, JdbcType jdbcType) throws SQLException {
-    ps.setArray(i, (Array) parameter);
+    if (parameter instanceof Array) {
+      // it's the user's responsibility to properly free() the Array instance
+      ps.setArray(i, (Array) parameter);
+      return;
+    }
+    if (!parameter.getClass().isArray()) {
+      throw new TypeException("ArrayType Handler requires SQL array or java array parameter and does not support type " + parameter.getClass());
+    }
+    Object[] elements = toObjectArray(parameter);
+    Array array = ps.getConnection().createArrayOf(resolveTypeName(parameter.getClass().getComponentType(), elements, jdbcType), elements);
+    ps.setArray(i, array);
+    array.free();
+  }
+
+  protected String resolveTypeName(Class<?> componentType, Object[] elements, JdbcType jdbcType) {
+    Class<?> type = componentType;
+    if (Object.class.equals(type)) {
+      for (Object element : elements) {
+        if (element != null) {
+          type = element.getClass();
+          break;
+        }
+      }
+    }
+    String typeName = STANDARD_MAPPING.get(type);
+    if (typeName == null && jdbcType != null && jdbcType != JdbcType.ARRAY && jdbcType != JdbcType.OTHER) {
+      typeName = jdbcType.name();
+    }
+    if (typeName == null) {
+      throw new TypeException("ArrayType Handler could not resolve the SQL type name of array elements of type " + type.getName()
+          + ". Specify the jdbcType of the elements (elementJdbcType of foreach) or pass a java.sql.Array instead.");
+    }
+    return typeName;
+  }
+
+  private static Object[] toObjectArray(Object array) {
+    if (array instanceof Object[]) {
+      return (Object[]) array;
+    }
+    // a primitive array
+    int length = java.lang.reflect.Array.getLength(array);
+    Object[] elements = new Object[length];
+    for (int i = 0; i < length; i++) {
+      elements[i] = java.lang.reflect.Array.get(array, i);
+    }
+    return elements;
   }
 
   @Override
@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * The {@link TypeHandler} for {@link Blob}/{@link ReadableByteChannel} that streams the contents instead of
+ * reading them into a byte array.
+ * <p>
+ * The channel of a result opens the stream of the {@link Blob} on the first read, so it can still be read after the
+ * result set moved to the next row, as long as the driver keeps the blob valid (usually until the transaction ends).
+ * Closing the channel frees the {@link Blob}.
+ *
+ * @since 3.5.2
+ */
+public class BlobChannelTypeHandler extends BaseTypeHandler<ReadableByteChannel> {
+
+  /**
+   * Set a {@link ReadableByteChannel} into {@link PreparedStatement}. The driver reads it in chunks when the statement is executed.
+   * @see PreparedStatement#setBinaryStream(int, java.io.InputStream)
+   */
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, ReadableByteChannel parameter, JdbcType jdbcType)
+      throws SQLException {
+    ps.setBinaryStream(i, Channels.newInputStream(parameter));
+  }
+
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, String columnName)
+      throws SQLException {
+    return toChannel(rs.getBlob(columnName));
+  }
+
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return toChannel(rs.getBlob(columnIndex));
+  }
+
+  @Override
+  public ReadableByteChannel getNullableResult(CallableStatement cs, int columnIndex)
+      throws SQLException {
+    return toChannel(cs.getBlob(columnIndex));
+  }
+
+  private ReadableByteChannel toChannel(Blob blob) {
+    return blob == null ? null : new BlobChannel(blob);
+  }
+
+  private static final class BlobChannel implements ReadableByteChannel {
+    private final Blob blob;
+    private ReadableByteChannel channel;
+    private boolean open = true;
+
+    BlobChannel(Blob blob) {
+      this.blob = blob;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      if (!open) {
+        throw new ClosedChannelException();
+      }
+      if (channel == null) {
+        try {
+          // reads at most 8 KB at a time from the stream
+          channel = Channels.newChannel(blob.getBinaryStream());
+        } catch (SQLException e) {
+          throw new IOException("Error opening the stream of the blob.  Cause: " + e, e);
+        }
+      }
+      return channel.read(dst);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!open) {
+        return;
+      }
+      open = false;
+      try {
+        if (channel != null) {
+          channel.close();
+        }
+      } finally {
+        try {
+          blob.free();
+        } catch (SQLFeatureNotSupportedException e) {
+          // released with the result set or the transaction instead
+        } catch (SQLException e) {
+          throw new IOException("Error freeing the blob.  Cause: " + e, e);
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,156 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * The {@link TypeHandler} for {@link Blob}/{@link Path} that moves the contents between the blob and a file
+ * without reading them into memory.
+ * <p>
+ * A parameter file is opened when the driver starts reading it, and closed when it has been read.
+ * A result is written to a new temporary file, which the caller is responsible for deleting, and the {@link Blob} is
+ * freed afterwards.
+ * This handler is not registered by default, because a {@link Path} may as well be stored as a string.
+ *
+ * @since 3.5.2
+ */
+public class BlobPathTypeHandler extends BaseTypeHandler<Path> {
+
+  /**
+   * Set the contents of a file into {@link PreparedStatement}.
+   * @see PreparedStatement#setBinaryStream(int, InputStream, long)
+   */
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, Path parameter, JdbcType jdbcType)
+      throws SQLException {
+    long size;
+    try {
+      size = Files.size(parameter);
+    } catch (IOException e) {
+      throw new TypeException("Error reading the size of '" + parameter + "'.  Cause: " + e, e);
+    }
+    ps.setBinaryStream(i, new PathInputStream(parameter), size);
+  }
+
+  @Override
+  public Path getNullableResult(ResultSet rs, String columnName)
+      throws SQLException {
+    return toPath(rs.getBlob(columnName));
+  }
+
+  @Override
+  public Path getNullableResult(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return toPath(rs.getBlob(columnIndex));
+  }
+
+  @Override
+  public Path getNullableResult(CallableStatement cs, int columnIndex)
+      throws SQLException {
+    return toPath(cs.getBlob(columnIndex));
+  }
+
+  private Path toPath(Blob blob) throws SQLException {
+    if (blob == null) {
+      return null;
+    }
+    Path file = null;
+    try (InputStream in = blob.getBinaryStream()) {
+      file = Files.createTempFile("mybatis-blob", null);
+      Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+      return file;
+    } catch (IOException e) {
+      if (file != null) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+          // ignored
+        }
+      }
+      throw new TypeException("Error writing the blob to a temporary file.  Cause: " + e, e);
+    } finally {
+      try {
+        blob.free();
+      } catch (SQLFeatureNotSupportedException e) {
+        // released with the result set or the transaction instead
+      }
+    }
+  }
+
+  private static final class PathInputStream extends InputStream {
+    private final Path path;
+    private InputStream in;
+    private boolean closed;
+
+    PathInputStream(Path path) {
+      this.path = path;
+    }
+
+    @Override
+    public int read() throws IOException {
+      InputStream in = open();
+      int b = in == null ? -1 : in.read();
+      if (b == -1) {
+        close();
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      InputStream in = open();
+      int n = in == null ? -1 : in.read(b, off, len);
+      if (n == -1) {
+        close();
+      }
+      return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+      InputStream in = open();
+      return in == null ? 0 : in.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+      if (in != null) {
+        in.close();
+        in = null;
+      }
+    }
+
+    private InputStream open() throws IOException {
+      if (in == null && !closed) {
+        in = Files.newInputStream(path);
+      }
+      return in;
+    }
+  }
+
+}
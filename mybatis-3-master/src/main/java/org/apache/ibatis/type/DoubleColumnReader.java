@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads a column as a primitive <code>double</code>, so that a value can be moved from a result set into a
+ * <code>double</code> property without boxing it. Implemented by type handlers that also read <code>Double</code> values.
+ * <p>
+ * Like {@link ResultSet#getDouble(String)}, the value is <code>0</code> when the column is SQL <code>NULL</code>,
+ * which must be checked with {@link ResultSet#wasNull()}.
+ *
+ * @since 3.5.2
+ * @see DoubleTypeHandler
+ */
+public interface DoubleColumnReader {
+
+  double getDouble(ResultSet rs, String columnName) throws SQLException;
+
+  double getDouble(ResultSet rs, int columnIndex) throws SQLException;
+
+}
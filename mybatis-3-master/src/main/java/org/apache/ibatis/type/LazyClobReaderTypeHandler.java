@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * The {@link TypeHandler} for {@link Clob}/{@link Reader} that streams the contents instead of reading them into a
+ * string, like {@link ClobReaderTypeHandler}, but opens the stream of the {@link Clob} on the first read.
+ * <p>
+ * The reader can therefore still be read after the result set moved to the next row, as long as the driver keeps
+ * the clob valid (usually until the transaction ends). Closing the reader frees the {@link Clob}.
+ * This handler is not registered by default, because {@link ClobReaderTypeHandler} is registered for {@link Reader}.
+ *
+ * @since 3.5.2
+ */
+public class LazyClobReaderTypeHandler extends BaseTypeHandler<Reader> {
+
+  /**
+   * Set a {@link Reader} into {@link PreparedStatement}.
+   * @see PreparedStatement#setClob(int, Reader)
+   */
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, Reader parameter, JdbcType jdbcType)
+      throws SQLException {
+    ps.setClob(i, parameter);
+  }
+
+  @Override
+  public Reader getNullableResult(ResultSet rs, String columnName)
+      throws SQLException {
+    return toReader(rs.getClob(columnName));
+  }
+
+  @Override
+  public Reader getNullableResult(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return toReader(rs.getClob(columnIndex));
+  }
+
+  @Override
+  public Reader getNullableResult(CallableStatement cs, int columnIndex)
+      throws SQLException {
+    return toReader(cs.getClob(columnIndex));
+  }
+
+  private Reader toReader(Clob clob) {
+    return clob == null ? null : new ClobReader(clob);
+  }
+
+  private static final class ClobReader extends Reader {
+    private final Clob clob;
+    private Reader reader;
+    private boolean closed;
+
+    ClobReader(Clob clob) {
+      this.clob = clob;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      return open().read(cbuf, off, len);
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+      return open().ready();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        if (reader != null) {
+          reader.close();
+        }
+      } finally {
+        try {
+          clob.free();
+        } catch (SQLFeatureNotSupportedException e) {
+          // released with the result set or the transaction instead
+        } catch (SQLException e) {
+          throw new IOException("Error freeing the clob.  Cause: " + e, e);
+        }
+      }
+    }
+
+    private Reader open() throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
+      if (reader == null) {
+        try {
+          reader = clob.getCharacterStream();
+        } catch (SQLException e) {
+          throw new IOException("Error opening the stream of the clob.  Cause: " + e, e);
+        }
+      }
+      return reader;
+    }
+  }
+
+}
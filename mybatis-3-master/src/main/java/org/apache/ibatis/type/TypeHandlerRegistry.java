@@ -22,6 +22,7 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -42,6 +43,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.io.ResolverUtil;
@@ -58,7 +60,12 @@ public final class TypeHandlerRegistry {
   private final TypeHandler<Object> unknownTypeHandler = new UnknownTypeHandler(this);
   private final Map<Class<?>, TypeHandler<?>> allTypeHandlersMap = new HashMap<>();
 
+  // 解析结果: java 类型 -> 按 JdbcType 序号排列的 TypeHandler (下标 0 为 null), 包括没有 TypeHandler 的结果, 注册 TypeHandler 时清空
+  private final Map<Type, AtomicReferenceArray<Object>> resolvedTypeHandlers = new ConcurrentHashMap<>();
+
   private static final Map<JdbcType, TypeHandler<?>> NULL_TYPE_HANDLER_MAP = Collections.emptyMap();
+  private static final Object NO_TYPE_HANDLER = new Object();
+  private static final int JDBC_TYPE_COUNT = JdbcType.values().length;
 
   private Class<? extends TypeHandler> defaultEnumTypeHandler = EnumTypeHandler.class;
 
@@ -120,6 +127,7 @@ public final class TypeHandlerRegistry {
     register(JdbcType.NUMERIC, new BigDecimalTypeHandler());
 
     register(InputStream.class, new BlobInputStreamTypeHandler());
+    register(ReadableByteChannel.class, new BlobChannelTypeHandler());
     register(Byte[].class, new ByteObjectArrayTypeHandler());
     register(Byte[].class, JdbcType.BLOB, new BlobByteObjectArrayTypeHandler());
     register(Byte[].class, JdbcType.LONGVARBINARY, new BlobByteObjectArrayTypeHandler());
@@ -171,6 +179,7 @@ public final class TypeHandlerRegistry {
    */
   public void setDefaultEnumTypeHandler(Class<? extends TypeHandler> typeHandler) {
     this.defaultEnumTypeHandler = typeHandler;
+    resolvedTypeHandlers.clear();
   }
 
   public boolean hasTypeHandler(Class<?> javaType) {
@@ -215,6 +224,25 @@ public final class TypeHandlerRegistry {
 
   @SuppressWarnings("unchecked")
   private <T> TypeHandler<T> getTypeHandler(Type type, JdbcType jdbcType) {
+    AtomicReferenceArray<Object> resolved = resolvedTypeHandlers.get(type);
+    if (resolved == null) {
+      resolved = new AtomicReferenceArray<>(JDBC_TYPE_COUNT + 1);
+      AtomicReferenceArray<Object> existing = resolvedTypeHandlers.putIfAbsent(type, resolved);
+      if (existing != null) {
+        resolved = existing;
+      }
+    }
+    int slot = jdbcType == null ? 0 : jdbcType.ordinal() + 1;
+    Object handler = resolved.get(slot);
+    if (handler == null) {
+      handler = resolveTypeHandler(type, jdbcType);
+      resolved.set(slot, handler == null ? NO_TYPE_HANDLER : handler);
+    }
+    // type drives generics here
+    return handler == NO_TYPE_HANDLER ? null : (TypeHandler<T>) handler;
+  }
+
+  private TypeHandler<?> resolveTypeHandler(Type type, JdbcType jdbcType) {
     if (ParamMap.class.equals(type)) {
       return null;
     }
@@ -230,8 +258,7 @@ public final class TypeHandlerRegistry {
         handler = pickSoleHandler(jdbcHandlerMap);
       }
     }
-    // type drives generics here
-    return (TypeHandler<T>) handler;
+    return handler;
   }
 
   private Map<JdbcType, TypeHandler<?>> getJdbcHandlerMap(Type type) {
@@ -245,7 +272,8 @@ public final class TypeHandlerRegistry {
         Class<?> enumClass = clazz.isAnonymousClass() ? clazz.getSuperclass() : clazz;
         jdbcHandlerMap = getJdbcHandlerMapForEnumInterfaces(enumClass, enumClass);
         if (jdbcHandlerMap == null) {
-          register(enumClass, getInstance(enumClass, defaultEnumTypeHandler));
+          // 只影响这个枚举类型自身的解析结果, 不清空其他类型已解析的 TypeHandler
+          putTypeHandler(enumClass, getInstance(enumClass, defaultEnumTypeHandler));
           return typeHandlerMap.get(enumClass);
         }
       } else {
@@ -347,16 +375,23 @@ public final class TypeHandlerRegistry {
   }
 
   private <T> void register(Type javaType, TypeHandler<? extends T> typeHandler) {
+    putTypeHandler(javaType, typeHandler);
+    if (javaType != null) {
+      resolvedTypeHandlers.clear();
+    }
+  }
+
+  private void putTypeHandler(Type javaType, TypeHandler<?> typeHandler) {
     MappedJdbcTypes mappedJdbcTypes = typeHandler.getClass().getAnnotation(MappedJdbcTypes.class);
     if (mappedJdbcTypes != null) {
       for (JdbcType handledJdbcType : mappedJdbcTypes.value()) {
-        register(javaType, handledJdbcType, typeHandler);
+        putTypeHandler(javaType, handledJdbcType, typeHandler);
       }
       if (mappedJdbcTypes.includeNullJdbcType()) {
-        register(javaType, null, typeHandler);
+        putTypeHandler(javaType, null, typeHandler);
       }
     } else {
-      register(javaType, null, typeHandler);
+      putTypeHandler(javaType, null, typeHandler);
     }
   }
 
@@ -371,6 +406,13 @@ public final class TypeHandlerRegistry {
   }
 
   private void register(Type javaType, JdbcType jdbcType, TypeHandler<?> handler) {
+    putTypeHandler(javaType, jdbcType, handler);
+    if (javaType != null) {
+      resolvedTypeHandlers.clear();
+    }
+  }
+
+  private void putTypeHandler(Type javaType, JdbcType jdbcType, TypeHandler<?> handler) {
     if (javaType != null) {
       Map<JdbcType, TypeHandler<?>> map = typeHandlerMap.get(javaType);
       if (map == null || map == NULL_TYPE_HANDLER_MAP) {
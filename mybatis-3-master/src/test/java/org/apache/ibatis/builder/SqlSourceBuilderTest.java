@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.HashMap;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SqlSourceBuilderTest {
+
+  @Test
+  void shouldShrinkWhitespacesAndRemoveComments() {
+    String sql = "\n  SELECT *  -- all columns\n  FROM\tBLOG /* the blogs */\n  WHERE ID = ?\n";
+    Assertions.assertEquals("SELECT * FROM BLOG WHERE ID = ?", SqlSourceBuilder.shrinkWhitespaces(sql));
+  }
+
+  @Test
+  void shouldKeepLiteralsAndQuotedIdentifiers() {
+    String sql = "SELECT  'a  --  b', 'it''s  ok', 'c:\\\\  d', \"my  column\"  FROM  `my  table`  WHERE  X = $$  a  $$  AND  Y = $f$ '  $f$";
+    Assertions.assertEquals("SELECT 'a  --  b', 'it''s  ok', 'c:\\\\  d', \"my  column\" FROM `my  table` WHERE X = $$  a  $$ AND Y = $f$ '  $f$",
+        SqlSourceBuilder.shrinkWhitespaces(sql));
+  }
+
+  @Test
+  void shouldKeepTheRestOfTheSqlAfterALiteralEndingWithABackslash() {
+    String sql = "SELECT  *  FROM  FILES  WHERE  path = 'C:\\'  AND  note = '-- keep  x'  -- comment\n  AND  ID = ?";
+    Assertions.assertEquals("SELECT * FROM FILES WHERE path = 'C:\\'  AND  note = '-- keep  x'  -- comment\n  AND  ID = ?",
+        SqlSourceBuilder.shrinkWhitespaces(sql));
+  }
+
+  @Test
+  void shouldNotEscapeQuotedIdentifiersWithABackslash() {
+    String sql = "SELECT  \"C:\\\"  FROM  `dir\\`  -- comment\n  WHERE  ID = ?";
+    Assertions.assertEquals("SELECT \"C:\\\" FROM `dir\\` WHERE ID = ?", SqlSourceBuilder.shrinkWhitespaces(sql));
+  }
+
+  @Test
+  void shouldKeepHints() {
+    String sql = "SELECT  /*+ INDEX(B  IDX) */  *  FROM  V$SESSION  B  WHERE  ID = $1 /*! STRAIGHT_JOIN */";
+    Assertions.assertEquals("SELECT /*+ INDEX(B  IDX) */ * FROM V$SESSION B WHERE ID = $1 /*! STRAIGHT_JOIN */",
+        SqlSourceBuilder.shrinkWhitespaces(sql));
+  }
+
+  @Test
+  void shouldShrinkWhitespacesWhenEnabled() {
+    Configuration configuration = new Configuration();
+    configuration.setShrinkWhitespacesInSql(true);
+    SqlSource sqlSource = new SqlSourceBuilder(configuration).parse("SELECT *\n  FROM BLOG\n  WHERE ID = #{id}", Object.class, new HashMap<>());
+    BoundSql boundSql = sqlSource.getBoundSql(null);
+    Assertions.assertEquals("SELECT * FROM BLOG WHERE ID = ?", boundSql.getSql());
+    Assertions.assertEquals(1, boundSql.getParameterMappings().size());
+  }
+
+  @Test
+  void shouldNotShrinkWhitespacesOfStatementThatOptsOut() {
+    Configuration configuration = new Configuration();
+    configuration.setShrinkWhitespacesInSql(true);
+    XMLLanguageDriver languageDriver = new XMLLanguageDriver();
+    SqlSource shrunk = languageDriver.createSqlSource(configuration, "<script>SELECT *\n  FROM BLOG</script>", Object.class);
+    SqlSource kept = languageDriver.createSqlSource(configuration, "<script shrinkWhitespaces=\"false\">SELECT *\n  FROM BLOG</script>", Object.class);
+    Assertions.assertEquals("SELECT * FROM BLOG", shrunk.getBoundSql(null).getSql());
+    Assertions.assertEquals("SELECT *\n  FROM BLOG", kept.getBoundSql(null).getSql());
+  }
+
+}
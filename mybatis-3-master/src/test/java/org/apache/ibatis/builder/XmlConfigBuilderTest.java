@@ -15,9 +15,15 @@
  */
 package org.apache.ibatis.builder;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.math.RoundingMode;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -29,6 +35,7 @@ import java.util.Properties;
 import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
@@ -40,7 +47,9 @@ import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.io.JBoss6VFS;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
+import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.AutoMappingBehavior;
@@ -60,8 +69,11 @@ import org.junit.jupiter.api.Test;
 import static com.googlecode.catchexception.apis.BDDCatchException.*;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 
@@ -82,6 +94,16 @@ class XmlConfigBuilderTest {
       assertThat(config.isAggressiveLazyLoading()).isFalse();
       assertThat(config.isMultipleResultSetsEnabled()).isTrue();
       assertThat(config.isUseColumnLabel()).isTrue();
+      assertThat(config.isUseColumnIndex()).isFalse();
+      assertThat(config.isParallelRowMappingEnabled()).isFalse();
+      assertThat(config.isCompactMapRowsEnabled()).isFalse();
+      assertThat(config.isResultSetMetaDataCacheEnabled()).isFalse();
+      assertThat(config.isCompiledDynamicSqlEnabled()).isFalse();
+      assertThat(config.isDynamicSqlCacheEnabled()).isFalse();
+      assertThat(config.isShrinkWhitespacesInSql()).isFalse();
+      assertThat(config.isParallelMapperParsingEnabled()).isFalse();
+      assertThat(config.isLazySqlSourceEnabled()).isFalse();
+      assertThat(config.isMapperIndexEnabled()).isFalse();
       assertThat(config.isUseGeneratedKeys()).isFalse();
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
       assertNull(config.getDefaultStatementTimeout());
@@ -175,6 +197,16 @@ class XmlConfigBuilderTest {
       assertThat(config.isAggressiveLazyLoading()).isTrue();
       assertThat(config.isMultipleResultSetsEnabled()).isFalse();
       assertThat(config.isUseColumnLabel()).isFalse();
+      assertThat(config.isUseColumnIndex()).isTrue();
+      assertThat(config.isParallelRowMappingEnabled()).isTrue();
+      assertThat(config.isCompactMapRowsEnabled()).isTrue();
+      assertThat(config.isResultSetMetaDataCacheEnabled()).isTrue();
+      assertThat(config.isCompiledDynamicSqlEnabled()).isTrue();
+      assertThat(config.isDynamicSqlCacheEnabled()).isTrue();
+      assertThat(config.isShrinkWhitespacesInSql()).isTrue();
+      assertThat(config.isParallelMapperParsingEnabled()).isTrue();
+      assertThat(config.isLazySqlSourceEnabled()).isTrue();
+      assertThat(config.isMapperIndexEnabled()).isTrue();
       assertThat(config.isUseGeneratedKeys()).isTrue();
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
       assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
@@ -299,4 +331,112 @@ class XmlConfigBuilderTest {
       .hasMessageContaining("The properties element cannot specify both a URL and a resource based property file reference.  Please specify one or the other.");
   }
 
+  @Test
+  void shouldRegisterMappersParsedInParallelInTheDeclaredOrder() {
+    Configuration sequential = new XMLConfigBuilder(new StringReader(mapperConfigWithBlogMappers("parallelMapperParsingEnabled", false))).parse();
+    Configuration parallel = new XMLConfigBuilder(new StringReader(mapperConfigWithBlogMappers("parallelMapperParsingEnabled", true))).parse();
+
+    assertTrue(parallel.isParallelMapperParsingEnabled());
+    assertEquals(new HashSet<>(sequential.getMappedStatementNames()), new HashSet<>(parallel.getMappedStatementNames()));
+    assertEquals(new HashSet<>(sequential.getResultMapNames()), new HashSet<>(parallel.getResultMapNames()));
+    assertEquals(new HashSet<>(sequential.getCacheNames()), new HashSet<>(parallel.getCacheNames()));
+    assertTrue(parallel.getIncompleteStatements().isEmpty());
+    assertTrue(parallel.getIncompleteResultMaps().isEmpty());
+    assertTrue(parallel.getIncompleteCacheRefs().isEmpty());
+  }
+
+  @Test
+  void shouldFindMappersParsedInParallelWithTheContextClassLoader() throws Exception {
+    Path dir = Files.createTempDirectory("mybatis-mappers");
+    Path mapper = dir.resolve("tccl/TcclMapper.xml");
+    Files.createDirectories(mapper.getParent());
+    Files.write(mapper, ("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"tccl.TcclMapper\">\n"
+        + "  <select id=\"selectOne\" resultType=\"int\">select 1</select>\n"
+        + "</mapper>\n").getBytes(StandardCharsets.UTF_8));
+    String config = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+        + "<configuration>\n"
+        + "  <settings>\n"
+        + "    <setting name=\"parallelMapperParsingEnabled\" value=\"true\"/>\n"
+        + "  </settings>\n"
+        + "  <mappers>\n"
+        + "    <mapper resource=\"tccl/TcclMapper.xml\"/>\n"
+        + "  </mappers>\n"
+        + "</configuration>\n";
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {dir.toUri().toURL()}, contextClassLoader)) {
+      Thread.currentThread().setContextClassLoader(classLoader);
+      Configuration configuration = new XMLConfigBuilder(new StringReader(config)).parse();
+      assertTrue(configuration.hasStatement("tccl.TcclMapper.selectOne"));
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+      Files.delete(mapper);
+      Files.delete(mapper.getParent());
+      Files.delete(dir);
+    }
+  }
+
+  @Test
+  void shouldBuildSqlSourcesLazily() {
+    Configuration config = new XMLConfigBuilder(new StringReader(mapperConfigWithBlogMappers("lazySqlSourceEnabled", true))).parse();
+    MappedStatement selectAuthor = config.getMappedStatement("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthorWithInlineParams");
+    MappedStatement selectBlog = config.getMappedStatement("org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogWithPostsUsingSubSelect");
+
+    assertTrue(config.isLazySqlSourceEnabled());
+    assertTrue(selectAuthor.getSqlSource() instanceof LazySqlSource);
+    assertFalse(((LazySqlSource) selectAuthor.getSqlSource()).isBuilt());
+
+    BoundSql boundSql = selectAuthor.getBoundSql(101);
+    assertEquals("select * from author where id = ?", boundSql.getSql().replaceAll("\\s+", " ").trim());
+    assertEquals(1, boundSql.getParameterMappings().size());
+    assertTrue(((LazySqlSource) selectAuthor.getSqlSource()).isBuilt());
+    assertFalse(((LazySqlSource) selectBlog.getSqlSource()).isBuilt());
+
+    config.buildLazySqlSources();
+    assertTrue(((LazySqlSource) selectBlog.getSqlSource()).isBuilt());
+  }
+
+  @Test
+  void shouldReportErrorsOfLazySqlSourcesWhenTheyAreBuilt() {
+    Configuration config = new Configuration();
+    config.setLazySqlSourceEnabled(true);
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"lazy\">\n"
+        + "  <select id=\"selectOne\" resultType=\"int\">select #{id,jdbcType=UNKNOWN_TYPE}</select>\n"
+        + "</mapper>\n";
+    new XMLMapperBuilder(new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8)), config, "lazy", config.getSqlFragments()).parse();
+
+    assertTrue(config.hasStatement("lazy.selectOne"));
+    BuilderException e = assertThrows(BuilderException.class, config::buildLazySqlSources);
+    assertTrue(e.getMessage().contains("Error building SQL for statement 'lazy.selectOne'"));
+  }
+
+  private static String mapperConfigWithBlogMappers(String setting, boolean value) {
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+            + "<configuration>\n"
+            + "  <settings>\n"
+            + "    <setting name=\"" + setting + "\" value=\"" + value + "\"/>\n"
+            + "  </settings>\n"
+            + "  <typeAliases>\n"
+            + "    <typeAlias alias=\"Author\" type=\"org.apache.ibatis.domain.blog.Author\"/>\n"
+            + "    <typeAlias alias=\"Blog\" type=\"org.apache.ibatis.domain.blog.Blog\"/>\n"
+            + "    <typeAlias alias=\"Comment\" type=\"org.apache.ibatis.domain.blog.Comment\"/>\n"
+            + "    <typeAlias alias=\"Post\" type=\"org.apache.ibatis.domain.blog.Post\"/>\n"
+            + "    <typeAlias alias=\"Section\" type=\"org.apache.ibatis.domain.blog.Section\"/>\n"
+            + "    <typeAlias alias=\"Tag\" type=\"org.apache.ibatis.domain.blog.Tag\"/>\n"
+            + "  </typeAliases>\n"
+            + "  <mappers>\n"
+            + "    <mapper resource=\"org/apache/ibatis/builder/AuthorMapper.xml\"/>\n"
+            + "    <mapper resource=\"org/apache/ibatis/builder/BlogMapper.xml\"/>\n"
+            + "    <mapper resource=\"org/apache/ibatis/builder/CachedAuthorMapper.xml\"/>\n"
+            + "    <mapper resource=\"org/apache/ibatis/builder/PostMapper.xml\"/>\n"
+            + "    <mapper url=\"file:./src/test/java/org/apache/ibatis/builder/NestedBlogMapper.xml\"/>\n"
+            + "  </mappers>\n"
+            + "</configuration>\n";
+  }
+
 }
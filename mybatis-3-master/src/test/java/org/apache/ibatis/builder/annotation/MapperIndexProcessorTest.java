@@ -0,0 +1,162 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapperIndexProcessorTest {
+
+  private Path sourceDir;
+  private Path outputDir;
+  private DiagnosticCollector<JavaFileObject> diagnostics;
+
+  @BeforeEach
+  void setup() throws IOException {
+    sourceDir = Files.createTempDirectory("mybatis-src");
+    outputDir = Files.createTempDirectory("mybatis-out");
+    diagnostics = new DiagnosticCollector<>();
+  }
+
+  @AfterEach
+  void cleanup() throws IOException {
+    for (Path dir : Arrays.asList(sourceDir, outputDir)) {
+      Files.walk(dir).sorted((a, b) -> b.compareTo(a)).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  void shouldIndexMapperInterfaces() throws Exception {
+    source("indexed/UserMapper.java", "package indexed; public interface UserMapper {"
+        + " @org.apache.ibatis.annotations.Select(\"select 1 from INFORMATION_SCHEMA.SYSTEM_USERS\") int one(); }");
+    source("indexed/XmlMapper.java", "package indexed; @org.apache.ibatis.annotations.Mapper public interface XmlMapper { }");
+    source("indexed/Plain.java", "package indexed; public interface Plain { }");
+    assertTrue(compile());
+    assertEquals(Arrays.asList("indexed.UserMapper", "indexed.XmlMapper"), index());
+    assertEquals(Arrays.asList("indexed.UserMapper", "indexed.XmlMapper"), addMappers("indexed", true));
+    assertEquals(Arrays.asList("indexed.Plain", "indexed.UserMapper", "indexed.XmlMapper"), addMappers("indexed", false));
+  }
+
+  @Test
+  void shouldKeepEntriesOfPreviousCompilationInIndex() throws Exception {
+    source("indexed/UserMapper.java", "package indexed; @org.apache.ibatis.annotations.Mapper public interface UserMapper { }");
+    source("indexed/BlogMapper.java", "package indexed; @org.apache.ibatis.annotations.Mapper public interface BlogMapper { }");
+    assertTrue(compile());
+    assertEquals(Arrays.asList("indexed.BlogMapper", "indexed.UserMapper"), index());
+
+    // only BlogMapper is compiled again and is no longer a mapper, UserMapper is kept
+    Files.delete(sourceDir.resolve("indexed/UserMapper.java"));
+    source("indexed/BlogMapper.java", "package indexed; public interface BlogMapper { }");
+    source("indexed/PostMapper.java", "package indexed; @org.apache.ibatis.annotations.Mapper public interface PostMapper { }");
+    assertTrue(compile());
+    assertEquals(Arrays.asList("indexed.PostMapper", "indexed.UserMapper"), index());
+
+    // UserMapper no longer exists
+    Files.delete(outputDir.resolve("indexed/UserMapper.class"));
+    Files.delete(sourceDir.resolve("indexed/BlogMapper.java"));
+    assertTrue(compile());
+    assertEquals(Arrays.asList("indexed.PostMapper"), index());
+  }
+
+  @Test
+  void shouldIndexInterfacesOfMapperPackages() throws Exception {
+    source("indexed/Plain.java", "package indexed; public interface Plain { interface Nested { } }");
+    source("other/Other.java", "package other; public interface Other { }");
+    assertTrue(compile("-A" + MapperIndexProcessor.MAPPER_PACKAGES_OPTION + "=indexed"));
+    assertEquals(Arrays.asList("indexed.Plain", "indexed.Plain$Nested"), index());
+  }
+
+  @Test
+  void shouldRejectMethodWithMoreThanOneStatement() throws Exception {
+    source("invalid/InvalidMapper.java", "package invalid; public interface InvalidMapper {"
+        + " @org.apache.ibatis.annotations.Select(\"select 1\") @org.apache.ibatis.annotations.Delete(\"delete 1\") int one(); }");
+    assertFalse(compile());
+    assertTrue(errors().contains("Only one statement annotation"));
+  }
+
+  @Test
+  void shouldRejectStatementOutsideOfInterface() throws Exception {
+    source("invalid/InvalidMapper.java", "package invalid; public abstract class InvalidMapper {"
+        + " @org.apache.ibatis.annotations.Select(\"select 1\") public abstract int one(); }");
+    assertFalse(compile());
+    assertTrue(errors().contains("only supported on methods of mapper interfaces"));
+  }
+
+  private void source(String path, String content) throws IOException {
+    Path file = sourceDir.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private boolean compile(String... options) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      List<File> files = Files.walk(sourceDir).filter(Files::isRegularFile).map(Path::toFile).collect(Collectors.toList());
+      List<String> arguments = new ArrayList<>(Arrays.asList("-d", outputDir.toString(),
+          "-classpath", outputDir + File.pathSeparator + System.getProperty("java.class.path"), "-processor", MapperIndexProcessor.class.getName()));
+      arguments.addAll(Arrays.asList(options));
+      return compiler.getTask(null, fileManager, diagnostics, arguments, null, fileManager.getJavaFileObjectsFromFiles(files)).call();
+    }
+  }
+
+  private List<String> addMappers(String packageName, boolean mapperIndexEnabled) throws IOException {
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {outputDir.toUri().toURL()}, getClass().getClassLoader())) {
+      Thread.currentThread().setContextClassLoader(classLoader);
+      Configuration configuration = new Configuration();
+      configuration.setMapperIndexEnabled(mapperIndexEnabled);
+      configuration.addMappers(packageName);
+      return configuration.getMapperRegistry().getMappers().stream().map(Class::getName).sorted().collect(Collectors.toList());
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+  }
+
+  private List<String> index() throws IOException {
+    return Files.readAllLines(outputDir.resolve(MapperIndexProcessor.INDEX_RESOURCE), StandardCharsets.UTF_8);
+  }
+
+  private String errors() {
+    return diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+        .map(d -> d.getMessage(null)).collect(Collectors.joining("\n"));
+  }
+
+}
@@ -22,6 +22,7 @@ import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,11 +37,15 @@ import org.apache.ibatis.scripting.xmltags.IfSqlNode;
 import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
 import org.apache.ibatis.scripting.xmltags.SetSqlNode;
 import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
 import org.apache.ibatis.scripting.xmltags.TextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TrimSqlNode;
 import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.type.ArrayTypeHandler;
+import org.apache.ibatis.type.JdbcType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -297,6 +302,17 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals(expected, boundSql.getSql());
   }
 
+  @Test
+  void shouldTrimOverridesIgnoringCase() throws Exception {
+    final String expected = "SELECT * FROM BLOG WHERE (  ID = ?  )";
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG WHERE"),
+        new TrimSqlNode(new Configuration(), mixedContents(new TextSqlNode("  And ID = ? oR ")),
+            "(", "AND |OR ", ")", " and| OR"));
+    BoundSql boundSql = source.getBoundSql(null);
+    assertEquals(expected, boundSql.getSql());
+  }
+
   @Test
   void shouldTrimNoSetClause() throws Exception {
     final String expected = "UPDATE BLOG";
@@ -376,6 +392,108 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  void shouldGenerateTheSameSqlAndParametersWhenCompiled() {
+    final Map<String, Object> param = new HashMap<>();
+    param.put("id", 1);
+    param.put("name", "foo");
+    param.put("ids", Arrays.asList(1, 2, 3));
+    param.put("column", "NAME");
+    final List<SqlNode> roots = Arrays.asList(
+        mixedContents(new StaticTextSqlNode("SELECT * FROM BLOG"),
+            new WhereSqlNode(new Configuration(), mixedContents(
+                new IfSqlNode(new StaticTextSqlNode("AND ID = #{id}"), "id != null"),
+                new IfSqlNode(new StaticTextSqlNode("OR NAME = #{name,jdbcType=VARCHAR}"), "name != null"),
+                new IfSqlNode(new StaticTextSqlNode("AND NOTE = #{note}"), "note != null")))),
+        mixedContents(new StaticTextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+            new ForEachSqlNode(new Configuration(), new StaticTextSqlNode("#{item}"), "ids", "index", "item", "(", ")", ","),
+            new TextSqlNode("ORDER BY ${column}, \\#{literal}")),
+        mixedContents(new StaticTextSqlNode("UPDATE BLOG"),
+            new SetSqlNode(new Configuration(), mixedContents(
+                new StaticTextSqlNode("NAME = #{name},"),
+                new ForEachSqlNode(new Configuration(), new StaticTextSqlNode("C#{index} = #{item},"), "ids", "index", "item", null, null, null))),
+            new StaticTextSqlNode("WHERE ID = #{id}")));
+    final Configuration compiledConfiguration = new Configuration();
+    compiledConfiguration.setCompiledDynamicSqlEnabled(true);
+    for (SqlNode root : roots) {
+      BoundSql expected = new DynamicSqlSource(new Configuration(), root).getBoundSql(param);
+      BoundSql actual = new DynamicSqlSource(compiledConfiguration, root).getBoundSql(param);
+      assertEquals(expected.getSql(), actual.getSql());
+      assertEquals(expected.getParameterMappings().size(), actual.getParameterMappings().size());
+      for (int i = 0; i < expected.getParameterMappings().size(); i++) {
+        assertEquals(expected.getParameterMappings().get(i).getProperty(), actual.getParameterMappings().get(i).getProperty());
+        assertEquals(expected.getParameterMappings().get(i).getJavaType(), actual.getParameterMappings().get(i).getJavaType());
+        assertEquals(expected.getParameterMappings().get(i).getJdbcType(), actual.getParameterMappings().get(i).getJdbcType());
+      }
+    }
+  }
+
+  @Test
+  void shouldReuseParameterMappingsForTheSameShape() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheEnabled(true);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new StaticTextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(configuration, mixedContents(
+            new IfSqlNode(new StaticTextSqlNode("AND ID = #{id}"), "id != null"),
+            new ForEachSqlNode(configuration, new StaticTextSqlNode("#{item.id}"), "beans", null, "item", "AND ID IN (", ")", ",")))));
+    final Map<String, Object> param = new HashMap<>();
+    param.put("id", 1);
+    param.put("beans", Arrays.asList(new Bean("a"), new Bean("b")));
+    final BoundSql first = source.getBoundSql(param);
+    param.put("id", 2);
+    param.put("beans", Arrays.asList(new Bean("c"), new Bean("d")));
+    final BoundSql second = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?AND ID IN (?,?)", second.getSql());
+    Assertions.assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals("d", ((Bean) second.getAdditionalParameter("__frch_item_1")).getId());
+    param.put("id", null);
+    param.put("beans", Arrays.asList(new Bean("e"), new Bean("f"), new Bean("g")));
+    final BoundSql third = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE  ID IN (?,?,?)", third.getSql());
+    assertEquals(3, third.getParameterMappings().size());
+    assertEquals(String.class, third.getParameterMappings().get(2).getJavaType());
+    // the types of the values of a map depend on the values, not on the class of the map
+    final Map<String, Object> row = new HashMap<>();
+    row.put("id", 1);
+    param.put("beans", Collections.singletonList(row));
+    final BoundSql fourth = source.getBoundSql(param);
+    final BoundSql fifth = source.getBoundSql(param);
+    Assertions.assertNotSame(fourth.getParameterMappings(), fifth.getParameterMappings());
+    assertEquals(Integer.class, fifth.getParameterMappings().get(0).getJavaType());
+  }
+
+  @Test
+  void shouldBindForEachCollectionAsArray() {
+    final Configuration configuration = new Configuration();
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new StaticTextSqlNode("SELECT * FROM BLOG WHERE ID = ANY"),
+        new ForEachSqlNode(configuration, new StaticTextSqlNode("#{item}"), "ids", null, "item", "(", ")", ",", true)));
+    final Map<String, Object> param = new HashMap<>();
+    param.put("ids", Arrays.asList(1, 2, 3));
+    final BoundSql boundSql = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE ID = ANY ( ? )", boundSql.getSql());
+    assertEquals(1, boundSql.getParameterMappings().size());
+    assertEquals(ArrayTypeHandler.class, boundSql.getParameterMappings().get(0).getTypeHandler().getClass());
+    final String property = boundSql.getParameterMappings().get(0).getProperty();
+    Assertions.assertArrayEquals(new Object[]{1, 2, 3}, (Object[]) boundSql.getAdditionalParameter(property));
+  }
+
+  @Test
+  void shouldBindEmptyForEachCollectionAsArrayOfTheElementJdbcType() {
+    final Configuration configuration = new Configuration();
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new StaticTextSqlNode("SELECT * FROM BLOG WHERE ID = ANY"),
+        new ForEachSqlNode(configuration, new StaticTextSqlNode("#{item}"), "ids", null, "item", "(", ")", ",", true, JdbcType.INTEGER)));
+    final Map<String, Object> param = new HashMap<>();
+    param.put("ids", Collections.emptyList());
+    final BoundSql boundSql = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE ID = ANY ( ? )", boundSql.getSql());
+    assertEquals(JdbcType.INTEGER, boundSql.getParameterMappings().get(0).getJdbcType());
+    final String property = boundSql.getParameterMappings().get(0).getProperty();
+    Assertions.assertArrayEquals(new Object[0], (Object[]) boundSql.getAdditionalParameter(property));
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
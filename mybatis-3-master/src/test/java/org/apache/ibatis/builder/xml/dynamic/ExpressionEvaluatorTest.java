@@ -17,6 +17,7 @@ package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.apache.ibatis.domain.blog.Author;
@@ -85,5 +86,25 @@ class ExpressionEvaluatorTest {
     }
   }
 
+  @Test
+  void shouldEvaluateCommonTestsLikeOgnl() {
+    final HashMap<String, Object> parameterObject = new HashMap<>();
+    parameterObject.put("name", "cbegin");
+    parameterObject.put("blank", "");
+    parameterObject.put("zero", 0);
+    parameterObject.put("flag", Boolean.TRUE);
+    parameterObject.put("list", Arrays.asList(1, 2));
+    parameterObject.put("author", new Author(1, "cbegin", "******", "cbegin@apache.org", "N/A", Section.NEWS));
+    assertTrue(evaluator.evaluateBoolean("name != null and name != ''", parameterObject));
+    assertFalse(evaluator.evaluateBoolean("blank != null and blank != ''", parameterObject));
+    assertTrue(evaluator.evaluateBoolean("missing == null", parameterObject));
+    assertTrue(evaluator.evaluateBoolean("list != null and list.size() > 0", parameterObject));
+    assertFalse(evaluator.evaluateBoolean("list.isEmpty() or !flag", parameterObject));
+    assertTrue(evaluator.evaluateBoolean("zero == 0 && author.username == 'cbegin'", parameterObject));
+    assertTrue(evaluator.evaluateBoolean("author.id gte 1", parameterObject));
+    // OGNL converts '' to 0 when it is compared to a number
+    assertFalse(evaluator.evaluateBoolean("zero != ''", parameterObject));
+  }
+
 
 }
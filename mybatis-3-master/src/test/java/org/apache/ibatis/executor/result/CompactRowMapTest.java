@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CompactRowMapTest {
+
+  @Test
+  void shouldBehaveLikeAHashMap() {
+    Map<String, Object> row = new CompactRowMap<>(new CompactRowMap.Shape());
+    row.put("ID", 1);
+    row.put("NAME", "a");
+    row.put("NOTE", null);
+    assertThat(row.put("NAME", "b")).isEqualTo("a");
+
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("ID", 1);
+    expected.put("NAME", "b");
+    expected.put("NOTE", null);
+    assertThat(row).isEqualTo(expected);
+    assertThat(row.hashCode()).isEqualTo(expected.hashCode());
+    assertThat(row).containsKey("NOTE");
+    assertThat(row).doesNotContainKey("OTHER");
+    assertThat(row.keySet()).containsExactly("ID", "NAME", "NOTE");
+  }
+
+  @Test
+  void shouldShareShapeBetweenRowsWithTheSameKeys() {
+    CompactRowMap.Shape root = new CompactRowMap.Shape();
+    Map<String, Object> first = new CompactRowMap<>(root);
+    first.put("ID", 1);
+    first.put("NAME", "a");
+    Map<String, Object> second = new CompactRowMap<>(root);
+    second.put("ID", 2);
+    second.put("NAME", "b");
+    assertThat(root.size()).isZero();
+    assertThat(first.get("NAME")).isEqualTo("a");
+    assertThat(second.get("NAME")).isEqualTo("b");
+    assertThat(first.get("ID")).isEqualTo(1);
+    assertThat(second.get("ID")).isEqualTo(2);
+  }
+
+  @Test
+  void shouldCopyOnRemove() {
+    CompactRowMap.Shape root = new CompactRowMap.Shape();
+    Map<String, Object> first = new CompactRowMap<>(root);
+    first.put("ID", 1);
+    first.put("NAME", "a");
+    Map<String, Object> second = new CompactRowMap<>(root);
+    second.put("ID", 2);
+    second.put("NAME", "b");
+
+    assertThat(first.remove("ID")).isEqualTo(1);
+    first.put("OTHER", "x");
+    assertThat(first.keySet()).containsExactly("NAME", "OTHER");
+    assertThat(second.keySet()).containsExactly("ID", "NAME");
+
+    Iterator<Map.Entry<String, Object>> iterator = second.entrySet().iterator();
+    iterator.next().setValue(3);
+    iterator.remove();
+    assertThat(iterator.next().getKey()).isEqualTo("NAME");
+    assertThat(second).containsOnlyKeys("NAME");
+
+    second.clear();
+    assertThat(second).isEmpty();
+  }
+
+  @Test
+  void shouldSerializeAsAMap() throws Exception {
+    Map<String, Object> row = new CompactRowMap<>(new CompactRowMap.Shape());
+    row.put("ID", 1);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(row);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertThat(in.readObject()).isEqualTo(row);
+    }
+  }
+
+}
@@ -15,9 +15,14 @@
  */
 package org.apache.ibatis.executor.resultset;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -28,11 +33,13 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
@@ -41,6 +48,7 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.ColumnBatch;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -101,6 +109,178 @@ class DefaultResultSetHandlerTest {
     assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
   }
 
+  @Test
+  void shouldReadColumnByIndexWhenUseColumnIndexIsEnabled() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    ms.getConfiguration().setUseColumnIndex(true);
+
+    final RowBounds rowBounds = new RowBounds(0, 100);
+    final DefaultResultSetHandler defaultResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+            null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, rowBounds);
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false);
+    when(rs.getInt(2)).thenReturn(100);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("OtherColumn");
+    when(rsmd.getColumnLabel(2)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnType(2)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(String.class.getCanonicalName());
+    when(rsmd.getColumnClassName(2)).thenReturn(Integer.class.getCanonicalName());
+    when(rs.getString(1)).thenReturn("other");
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = defaultResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
+    assertEquals("other", ((HashMap) results.get(0)).get("OtherColumn"));
+  }
+
+  @Test
+  void shouldMapRowsInParallelInTheOrderOfTheRows() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    ms.getConfiguration().setParallelRowMappingEnabled(true);
+
+    final DefaultResultSetHandler defaultResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+            null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, RowBounds.DEFAULT);
+
+    final int rowCount = 1000;
+    final int[] currentRow = {0};
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenAnswer(invocation -> ++currentRow[0] <= rowCount);
+    when(rs.getObject(1)).thenAnswer(invocation -> "other" + currentRow[0]);
+    when(rs.getObject(2)).thenAnswer(invocation -> currentRow[0]);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("OtherColumn");
+    when(rsmd.getColumnLabel(2)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnType(2)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(String.class.getCanonicalName());
+    when(rsmd.getColumnClassName(2)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = defaultResultSetHandler.handleResultSets(stmt);
+    assertEquals(rowCount, results.size());
+    for (int i = 0; i < rowCount; i++) {
+      assertEquals(i + 1, ((HashMap) results.get(i)).get("cOlUmN1"));
+      assertEquals("other" + (i + 1), ((HashMap) results.get(i)).get("OtherColumn"));
+    }
+  }
+
+  @Test
+  void shouldReadColumnBatch() throws Exception {
+    final Configuration config = new Configuration();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(new ResultMap.Builder(config, "testMap", ColumnBatch.class, new ArrayList<>()).build())).build();
+    final DefaultResultSetHandler defaultResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+            null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, RowBounds.DEFAULT);
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getLong(1)).thenReturn(10L).thenReturn(0L).thenReturn(30L);
+    when(rs.getString(2)).thenReturn("a").thenReturn("b").thenReturn("a");
+    when(rs.wasNull()).thenReturn(false).thenReturn(false).thenReturn(true).thenReturn(false).thenReturn(false).thenReturn(false);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("AMOUNT");
+    when(rsmd.getColumnLabel(2)).thenReturn("CATEGORY");
+    when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(1)).thenReturn(Long.class.getCanonicalName());
+    when(rsmd.getColumnClassName(2)).thenReturn(String.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = defaultResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    final ColumnBatch columnBatch = (ColumnBatch) results.get(0);
+    assertEquals(3, columnBatch.getRowCount());
+    assertEquals(0, columnBatch.getColumnIndex("amount"));
+    assertEquals(ColumnBatch.ColumnType.LONG, columnBatch.getColumnType(0));
+    assertArrayEquals(new long[] {10L, 0L, 30L}, columnBatch.getLongs(0));
+    assertTrue(columnBatch.isNull(0, 1));
+    assertNull(columnBatch.getObject(0, 1));
+    assertEquals(ColumnBatch.ColumnType.STRING, columnBatch.getColumnType(1));
+    assertArrayEquals(new int[] {0, 1, 0}, columnBatch.getStringCodes(1));
+    assertEquals(Arrays.asList("a", "b"), columnBatch.getDictionary(1));
+    assertEquals("a", columnBatch.getString(1, 2));
+  }
+
+  @Test
+  void shouldReuseResultSetMetaDataAcrossExecutions() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    ms.getConfiguration().setResultSetMetaDataCacheEnabled(true);
+    final BoundSql boundSql = new BoundSql(ms.getConfiguration(), "some select statement", Collections.emptyList(), null);
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false).thenReturn(true).thenReturn(false);
+    when(rs.getInt("CoLuMn1")).thenReturn(100).thenReturn(200);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    for (int expected : new int[] {100, 200}) {
+      final DefaultResultSetHandler defaultResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+              null/*parameterHandler*/, null/*resultHandler*/, boundSql, RowBounds.DEFAULT);
+      final List<Object> results = defaultResultSetHandler.handleResultSets(stmt);
+      assertEquals(1, results.size());
+      assertEquals(expected, ((HashMap) results.get(0)).get("cOlUmN1"));
+    }
+    verify(rsmd, times(2)).getColumnCount();
+    verify(rsmd, times(1)).getColumnLabel(1);
+    assertEquals(1, ms.getConfiguration().getResultSetMetaDataCache().getSize());
+  }
+
+  @Test
+  void shouldReuseAutoMappingsAcrossExecutions() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    final RowBounds rowBounds = new RowBounds(0, 100);
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false).thenReturn(true).thenReturn(false);
+    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rs.getString("OtherColumn")).thenReturn("other");
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("OtherColumn");
+    when(rsmd.getColumnLabel(2)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnType(2)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(String.class.getCanonicalName());
+    when(rsmd.getColumnClassName(2)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    for (int i = 0; i < 2; i++) {
+      final DefaultResultSetHandler defaultResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+              null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, rowBounds);
+      final List<Object> results = defaultResultSetHandler.handleResultSets(stmt);
+      assertEquals(1, results.size());
+      assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
+      assertEquals("other", ((HashMap) results.get(0)).get("OtherColumn"));
+    }
+    assertEquals(1, ms.getConfiguration().getAutoMappingCache().getSize());
+  }
+
   @Test
   void shouldThrowExceptionWithColumnName() throws Exception {
     final MappedStatement ms = getMappedStatement();
@@ -129,6 +309,35 @@ class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  void shouldAutoMapPrimitivePropertyThroughPrimitiveReader() throws Exception {
+    final Configuration config = new Configuration();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).resultMaps(
+        Collections.singletonList(new ResultMap.Builder(config, "testMap", Author.class, new ArrayList<>()).build())).build();
+    final DefaultResultSetHandler defaultResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+            null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getInt("ID")).thenReturn(100).thenReturn(0);
+    when(rs.wasNull()).thenReturn(true);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = defaultResultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    assertEquals(100, ((Author) results.get(0)).getId());
+    assertNull(results.get(1));
+    verify(rs, times(2)).getInt("ID");
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.TimeZone;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import org.junit.jupiter.api.Test;
+
+class RowBufferTest {
+
+  @Test
+  void shouldStreamBufferedLobs() throws Exception {
+    byte[] bytes = "bytes".getBytes(StandardCharsets.US_ASCII);
+    Object[] row = { bytes, new SerialBlob("blob".getBytes(StandardCharsets.US_ASCII)), new SerialClob("clob".toCharArray()), "text" };
+    ResultSet rs = RowBuffer.newInstance(null, null, Collections.singletonList(row));
+    assertTrue(rs.next());
+
+    assertArrayEquals(bytes, readAll(rs.getBinaryStream(1)));
+    assertArrayEquals("blob".getBytes(StandardCharsets.US_ASCII), readAll(rs.getBinaryStream(2)));
+    assertEquals("clob", new BufferedReader(rs.getCharacterStream(3)).readLine());
+    assertArrayEquals("clob".getBytes(StandardCharsets.US_ASCII), readAll(rs.getAsciiStream(3)));
+    assertEquals("text", new BufferedReader(rs.getCharacterStream(4)).readLine());
+    assertArrayEquals("text".getBytes(StandardCharsets.US_ASCII), readAll(rs.getAsciiStream(4)));
+    assertFalse(rs.wasNull());
+    assertFalse(rs.next());
+  }
+
+  @Test
+  void shouldApplyCalendarToValuesWithoutTimeZone() throws Exception {
+    LocalDateTime localDateTime = LocalDateTime.of(2019, 1, 2, 3, 4, 5, 123456789);
+    Object[] row = { Timestamp.valueOf(localDateTime), Date.valueOf("2019-01-02"), Time.valueOf("03:04:05"),
+        OffsetDateTime.of(localDateTime, ZoneOffset.ofHours(9)) };
+    ResultSet rs = RowBuffer.newInstance(null, null, Collections.singletonList(row));
+    assertTrue(rs.next());
+    Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    assertEquals(Timestamp.valueOf(localDateTime), rs.getTimestamp(1));
+    assertEquals(Timestamp.valueOf(localDateTime), rs.getTimestamp(1, null));
+    assertEquals(Timestamp.from(localDateTime.toInstant(ZoneOffset.UTC)), rs.getTimestamp(1, utc));
+    assertEquals(localDateTime.toInstant(ZoneOffset.UTC).toEpochMilli(), rs.getTimestamp(1, utc).getTime());
+    assertEquals(LocalDate.of(2019, 1, 2).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), rs.getDate(2, utc).getTime());
+    assertEquals(LocalDateTime.of(1970, 1, 1, 3, 4, 5).toInstant(ZoneOffset.UTC).toEpochMilli(), rs.getTime(3, utc).getTime());
+    // a value with a time zone is not moved to the zone of the calendar
+    assertEquals(Timestamp.from(localDateTime.toInstant(ZoneOffset.ofHours(9))), rs.getTimestamp(4, utc));
+  }
+
+  @Test
+  void shouldConvertToJavaTimeTypes() throws Exception {
+    LocalDateTime localDateTime = LocalDateTime.of(2019, 1, 2, 3, 4, 5);
+    Object[] row = { Timestamp.valueOf(localDateTime), Date.valueOf("2019-01-02"), Time.valueOf("03:04:05") };
+    ResultSet rs = RowBuffer.newInstance(null, null, Collections.singletonList(row));
+    assertTrue(rs.next());
+    ZonedDateTime zonedDateTime = localDateTime.atZone(ZoneId.systemDefault());
+
+    assertEquals(localDateTime, rs.getObject(1, LocalDateTime.class));
+    assertEquals(LocalDate.of(2019, 1, 2), rs.getObject(1, LocalDate.class));
+    assertEquals(zonedDateTime.toOffsetDateTime(), rs.getObject(1, OffsetDateTime.class));
+    assertEquals(zonedDateTime, rs.getObject(1, ZonedDateTime.class));
+    assertEquals(zonedDateTime.toInstant(), rs.getObject(1, Instant.class));
+    assertEquals(LocalDate.of(2019, 1, 2), rs.getObject(2, LocalDate.class));
+    assertEquals(LocalDate.of(2019, 1, 2).atStartOfDay(), rs.getObject(2, LocalDateTime.class));
+    assertEquals(LocalTime.of(3, 4, 5), rs.getObject(3, LocalTime.class));
+  }
+
+  @Test
+  void shouldNotIgnoreArgumentsOfUnsupportedOverloads() throws Exception {
+    Object[] row = { BigDecimal.ONE };
+    ResultSet rs = RowBuffer.newInstance(null, null, Collections.singletonList(row));
+    assertTrue(rs.next());
+    assertThrows(SQLFeatureNotSupportedException.class, () -> rs.getBigDecimal(1, 2));
+    assertThrows(SQLFeatureNotSupportedException.class, () -> rs.getObject(1, Collections.<String, Class<?>>emptyMap()));
+  }
+
+  private static byte[] readAll(InputStream in) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[64];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+}
@@ -16,8 +16,12 @@
 package org.apache.ibatis.parsing;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.InputStream;
+import java.util.List;
 
 import org.apache.ibatis.io.Resources;
 import org.junit.jupiter.api.Test;
@@ -44,4 +48,41 @@ class XPathParserTest {
     }
   }
 
+  @Test
+  void shouldSelectChildElementsWithoutXPath() throws Exception {
+    String resource = "resources/nodelet_test.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XPathParser parser = new XPathParser(inputStream, false, null, null);
+      XNode employee = parser.evalNode("/employee");
+      assertEquals("employee", employee.getName());
+      assertEquals("6", parser.evalNode("/employee/birth_date/month").getStringBody());
+      assertNull(parser.evalNode("/employee/birth_date/hour"));
+      assertEquals(3, parser.evalNodes("/employee/birth_date/*").size());
+
+      List<XNode> nodes = employee.evalNodes("height|first_name|last_name");
+      assertEquals(3, nodes.size());
+      assertEquals("first_name", nodes.get(0).getName());
+      assertEquals("last_name", nodes.get(1).getName());
+      assertEquals("height", nodes.get(2).getName());
+
+      XNode birthDate = employee.evalNode("birth_date");
+      assertEquals("1970", birthDate.evalNode("year").getStringBody());
+      assertEquals("height", birthDate.evalNode("/employee/height").getName());
+      assertTrue(birthDate.evalNodes("height").isEmpty());
+    }
+  }
+
+  @Test
+  void shouldOnlyCompileChildElementPaths() {
+    assertNotNull(ChildElementPath.compile("/mapper/resultMap"));
+    assertNotNull(ChildElementPath.compile("select|insert|update|delete"));
+    assertNotNull(ChildElementPath.compile("cache-ref"));
+    assertNull(ChildElementPath.compile("/employee/*"));
+    assertNull(ChildElementPath.compile("/employee/@id"));
+    assertNull(ChildElementPath.compile("//height"));
+    assertNull(ChildElementPath.compile("height[1]"));
+    assertNull(ChildElementPath.compile("text()"));
+    assertNull(ChildElementPath.compile("/a|/b"));
+  }
+
 }
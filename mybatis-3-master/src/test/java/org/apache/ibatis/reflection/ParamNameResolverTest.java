@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class ParamNameResolverTest {
+
+  @Test
+  void shouldReturnSingleParameterWithoutName() throws Exception {
+    ParamNameResolver resolver = resolver("single", RowBounds.class, String.class);
+    assertSame("foo", resolver.getNamedParams(new Object[] {RowBounds.DEFAULT, "foo"}));
+  }
+
+  @Test
+  void shouldNameParametersAndAddGenericNames() throws Exception {
+    ParamNameResolver resolver = resolver("multiple", String.class, RowBounds.class, Integer.class);
+    Map<?, ?> params = (Map<?, ?>) resolver.getNamedParams(new Object[] {"foo", RowBounds.DEFAULT, 1});
+    assertEquals(4, params.size());
+    assertEquals("foo", params.get("id"));
+    assertEquals(1, params.get("param2"));
+    assertEquals("foo", params.get("param1"));
+  }
+
+  @Test
+  void shouldNotOverwriteParameterNamedLikeGenericName() throws Exception {
+    ParamNameResolver resolver = resolver("clash", String.class, String.class);
+    Map<?, ?> params = (Map<?, ?>) resolver.getNamedParams(new Object[] {"foo", "bar"});
+    assertEquals(3, params.size());
+    assertEquals("bar", params.get("param1"));
+    assertEquals("bar", params.get("param2"));
+    assertEquals("foo", params.get("id"));
+  }
+
+  private static ParamNameResolver resolver(String methodName, Class<?>... parameterTypes) throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setUseActualParamName(false);
+    return new ParamNameResolver(configuration, Mapper.class.getMethod(methodName, parameterTypes));
+  }
+
+  interface Mapper {
+    void single(RowBounds rowBounds, String id);
+
+    void multiple(@Param("id") String id, RowBounds rowBounds, Integer size);
+
+    void clash(@Param("id") String id, @Param("param1") String name);
+  }
+
+}
@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.domain.misc.RichType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyPathTest {
+
+  private final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+
+  @Test
+  void shouldGetFieldAndNestedProperty() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    rich.getRichType().setRichProperty("foo");
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue("richField", "bar");
+    assertEquals("bar", PropertyPath.compile("richField").getValue(rich, reflectorFactory));
+    assertEquals("foo", PropertyPath.compile("richType.richProperty").getValue(rich, reflectorFactory));
+  }
+
+  @Test
+  void shouldGetNullWhenPathHasNull() {
+    RichType rich = new RichType();
+    assertNull(PropertyPath.compile("richType.richProperty").getValue(rich, reflectorFactory));
+  }
+
+  @Test
+  void shouldGetValuesOfMaps() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("author", new Author(101, "cbegin", "******", "cbegin@apache.org", "N/A", Section.NEWS));
+    PropertyPath path = PropertyPath.compile("author.username");
+    assertEquals("cbegin", path.getValue(map, reflectorFactory));
+    assertNull(PropertyPath.compile("editor.username").getValue(map, reflectorFactory));
+  }
+
+  @Test
+  void shouldResolveGetterAgainForAnotherType() {
+    PropertyPath path = PropertyPath.compile("id");
+    assertEquals(101, path.getValue(new Author(101), reflectorFactory));
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", 102);
+    assertEquals(102, path.getValue(map, reflectorFactory));
+    assertEquals(103, path.getValue(new Author(103), reflectorFactory));
+  }
+
+  @Test
+  void shouldGetIndexedValues() {
+    RichType rich = new RichType();
+    rich.getRichMap().put("key", "foo");
+    Map<String, Object> map = new HashMap<>();
+    map.put("ids", new int[] {1, 2});
+    map.put("rich", rich);
+    assertEquals("bar", PropertyPath.compile("rich.richList[0]").getValue(map, reflectorFactory));
+    assertEquals("foo", PropertyPath.compile("rich.richMap[key]").getValue(map, reflectorFactory));
+    assertEquals(2, PropertyPath.compile("ids[1]").getValue(map, reflectorFactory));
+  }
+
+  @Test
+  void shouldSetValues() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    List<Object> list = new ArrayList<>();
+    list.add(null);
+    rich.setRichList(list);
+    assertTrue(PropertyPath.compile("richType.richProperty").setValue(rich, "foo", reflectorFactory));
+    assertTrue(PropertyPath.compile("richMap.key").setValue(rich, "bar", reflectorFactory));
+    assertTrue(PropertyPath.compile("richList[0]").setValue(rich, "baz", reflectorFactory));
+    assertEquals("foo", rich.getRichType().getRichProperty());
+    assertEquals("bar", rich.getRichMap().get("key"));
+    assertEquals("baz", list.get(0));
+  }
+
+  @Test
+  void shouldNotSetWhenPathHasNull() {
+    RichType rich = new RichType();
+    assertFalse(PropertyPath.compile("richType.richProperty").setValue(rich, "foo", reflectorFactory));
+    assertNull(rich.getRichType());
+  }
+
+  @Test
+  void shouldNotResolveWhatNeedsMetaObject() {
+    assertNull(PropertyPath.compile("richList[0"));
+    assertNull(PropertyPath.compile("richType..richField"));
+    assertSame(PropertyPath.UNRESOLVED, PropertyPath.compile("unknown").getValue(new RichType(), reflectorFactory));
+    assertSame(PropertyPath.UNRESOLVED, PropertyPath.compile("richList.size").getValue(new RichType(), reflectorFactory));
+  }
+
+  @Test
+  void shouldCachePathsPerClassUpToTheLimit() {
+    Reflector reflector = reflectorFactory.findForClass(RichType.class);
+    PropertyPath path = reflector.getPropertyPath("richType.richField");
+    assertSame(path, reflector.getPropertyPath("richType.richField"));
+    assertNotSame(path, reflectorFactory.findForClass(Author.class).getPropertyPath("richType.richField"));
+    for (int i = 0; i < 256; i++) {
+      reflector.getPropertyPath("richMap.key" + i);
+    }
+    assertSame(path, reflector.getPropertyPath("richType.richField"));
+    assertNotSame(reflector.getPropertyPath("richMap.key255"), reflector.getPropertyPath("richMap.key255"));
+  }
+
+}
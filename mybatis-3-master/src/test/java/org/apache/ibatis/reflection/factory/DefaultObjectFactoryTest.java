@@ -15,6 +15,10 @@
  */
 package org.apache.ibatis.reflection.factory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -61,6 +65,17 @@ class DefaultObjectFactoryTest {
     }
   }
 
+  @Test
+  void createClassWithPrivateConstructorAndPrimitiveArgs() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    for (int i = 0; i < 2; i++) {
+      ImmutableValue value = defaultObjectFactory.create(ImmutableValue.class,
+          Arrays.asList(long.class, String.class), Arrays.asList(1L + i, "foo"));
+      Assertions.assertEquals(1L + i, value.id);
+      Assertions.assertEquals("foo", value.name);
+    }
+  }
+
   @Test
   void creatHashMap() {
      DefaultObjectFactory defaultObjectFactory=new DefaultObjectFactory();
@@ -94,4 +109,41 @@ class DefaultObjectFactoryTest {
     Set set = defaultObjectFactory.create(Set.class);
     Assertions.assertTrue(set instanceof HashSet, " set should be HashSet");
   }
+
+  @Test
+  void createClassRethrowsErrors() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    Assertions.assertThrows(AssertionError.class, () -> defaultObjectFactory.create(FailingValue.class));
+  }
+
+  @Test
+  void createClassAfterDeserialization() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new DefaultObjectFactory());
+    }
+    DefaultObjectFactory defaultObjectFactory;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      defaultObjectFactory = (DefaultObjectFactory) in.readObject();
+    }
+    TestClass testClass = defaultObjectFactory.create(TestClass.class,
+        Arrays.asList(String.class, Integer.class), Arrays.asList("foo", 0));
+    Assertions.assertEquals("foo", testClass.myString, "myString didn't match expected");
+  }
+
+  static class FailingValue {
+    FailingValue() {
+      throw new AssertionError("constructor failed");
+    }
+  }
+
+  static class ImmutableValue {
+    private final long id;
+    private final String name;
+
+    private ImmutableValue(long id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+  }
 }
@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ognl.Ognl;
+import ognl.OgnlException;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SimpleExpressionTest {
+
+  private Map<String, Object> root;
+
+  @BeforeEach
+  void setup() {
+    root = new HashMap<>();
+    root.put("flag", "abc");
+    root.put("yes", "true");
+    root.put("blank", "");
+    root.put("name", "cbegin");
+  }
+
+  @Test
+  void shouldConvertStringOperandsOfLogicalOperatorsLikeOgnl() throws Exception {
+    // OGNL reads a string as Boolean.parseBoolean(string) in !, not, and, or
+    assertLikeOgnl(Boolean.TRUE, "!flag");
+    assertLikeOgnl(Boolean.TRUE, "not flag");
+    assertLikeOgnl(Boolean.FALSE, "!yes");
+    assertLikeOgnl("", "blank and blank != ''");
+    assertLikeOgnl("cbegin", "name and name != ''");
+    assertLikeOgnl("cbegin", "yes and name");
+    assertLikeOgnl("", "name or blank");
+    assertLikeOgnl("true", "yes or blank");
+    assertLikeOgnl("cbegin", "blank || name");
+  }
+
+  @Test
+  void shouldLeaveCharLiteralsToOgnl() {
+    assertNull(SimpleExpression.compile("type == 'Y'"));
+    assertNull(SimpleExpression.compile("flag == '1'"));
+    assertNotNull(SimpleExpression.compile("type == 'YN'"));
+    assertNotNull(SimpleExpression.compile("type == \"Y\""));
+  }
+
+  @Test
+  void shouldCallFailingGetterOnce() {
+    FailingBean bean = new FailingBean();
+    root.put("bean", bean);
+    BuilderException e = assertThrows(BuilderException.class, () -> OgnlCache.getValue("bean.value != null", root));
+    assertTrue(e.getMessage().contains("Error evaluating expression 'bean.value != null'"));
+    assertEquals(1, bean.calls);
+  }
+
+  private void assertLikeOgnl(Object expected, String expression) throws OgnlException {
+    SimpleExpression simpleExpression = SimpleExpression.compile(expression);
+    assertNotNull(simpleExpression, expression);
+    Object value = simpleExpression.getValue(root);
+    assertNotSame(SimpleExpression.UNRESOLVED, value, expression);
+    assertEquals(expected, value, expression);
+    Map context = Ognl.createDefaultContext(root, new OgnlMemberAccess(), new OgnlClassResolver(), null);
+    assertEquals(expected, Ognl.getValue(Ognl.parseExpression(expression), context, root), expression);
+  }
+
+  public static class FailingBean {
+    private int calls;
+
+    public String getValue() {
+      calls++;
+      throw new IllegalStateException("failed");
+    }
+  }
+
+}
@@ -16,9 +16,12 @@
 package org.apache.ibatis.submitted.nestedresulthandler;
 
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.session.SqlSession;
@@ -94,6 +97,51 @@ class NestedResultHandlerTest {
     }
   }
 
+  @Test
+  void testGetPersonWithHandlerUsingResultOrderedBy() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Person> persons = new ArrayList<>();
+      sqlSession.select("getPersonsOrderedById", context -> {
+        Person person = (Person) context.getResultObject();
+        persons.add(person);
+        // a person is only handed over after all of its rows were read
+        Assertions.assertEquals("brother".equals(person.getName()) ? 1 : 2, person.getItems().size());
+      });
+      Assertions.assertEquals(3, persons.size());
+      Assertions.assertEquals("grandma", persons.get(0).getName());
+      Assertions.assertEquals("sister", persons.get(1).getName());
+      Assertions.assertEquals("brother", persons.get(2).getName());
+    }
+  }
+
+  @Test
+  void testGetPersonWithCursorUsingResultOrderedBy() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      try (Cursor<Person> cursor = sqlSession.selectCursor("getPersonsOrderedById")) {
+        Iterator<Person> iterator = cursor.iterator();
+        Person person = iterator.next();
+        Assertions.assertEquals("grandma", person.getName());
+        Assertions.assertEquals(2, person.getItems().size());
+        person = iterator.next();
+        Assertions.assertEquals("sister", person.getName());
+        Assertions.assertEquals(2, person.getItems().size());
+        person = iterator.next();
+        Assertions.assertEquals("brother", person.getName());
+        Assertions.assertEquals(1, person.getItems().size());
+        Assertions.assertFalse(iterator.hasNext());
+      }
+    }
+  }
+
+  @Test
+  void testUnsortedRowsWithResultOrderedBy() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class,
+          () -> sqlSession.selectList("getPersonsWithItemsOrderedByItemName"));
+      Assertions.assertTrue(e.getMessage().contains("are not sorted by the resultOrderedBy column 'person_id'"));
+    }
+  }
+
   /**
    * Fix bug caused by issue #542, see new issue #22 on github If we order by a
    * nested result map attribute we can miss some records and end up with
@@ -27,8 +27,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.CacheableSql;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.builder.BuilderException;
@@ -55,6 +57,7 @@ class SqlProviderTest {
       sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
       sqlSessionFactory.getConfiguration().addMapper(StaticMethodSqlProviderMapper.class);
       sqlSessionFactory.getConfiguration().addMapper(DatabaseIdMapper.class);
+      sqlSessionFactory.getConfiguration().addMapper(CacheableSqlMapper.class);
     }
     // populate in-memory database
     BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
@@ -624,4 +627,81 @@ class SqlProviderTest {
     }
   }
 
+  @Test
+  void shouldReuseSqlOfCacheableSqlProviderForTheSameProperties() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CacheableSqlMapper mapper = sqlSession.getMapper(CacheableSqlMapper.class);
+      assertEquals("User1", mapper.selectColumnByProperty(1, "name"));
+      assertEquals("User2", mapper.selectColumnByProperty(2, "name"));
+      assertEquals(1, CacheableSqlMapper.SqlProvider.propertyInvocations.get());
+      assertEquals("user1", mapper.selectColumnByProperty(1, "LOWER(name)"));
+      assertEquals(2, CacheableSqlMapper.SqlProvider.propertyInvocations.get());
+    }
+  }
+
+  @Test
+  void shouldReuseSqlOfCacheableSqlProviderForTheSameKey() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CacheableSqlMapper mapper = sqlSession.getMapper(CacheableSqlMapper.class);
+      assertEquals("User1", mapper.selectColumnByKeyMethod(1, "name"));
+      assertEquals("User2", mapper.selectColumnByKeyMethod(2, "name"));
+      assertEquals(1, CacheableSqlMapper.SqlProvider.keyMethodInvocations.get());
+      // a null key is not cached
+      assertEquals("user1", mapper.selectColumnByKeyMethod(1, "LOWER(name)"));
+      assertEquals("user1", mapper.selectColumnByKeyMethod(1, "LOWER(name)"));
+      assertEquals(3, CacheableSqlMapper.SqlProvider.keyMethodInvocations.get());
+    }
+  }
+
+  @Test
+  void cacheKeyMethodNotFound() throws NoSuchMethodException {
+    try {
+      Class<?> mapperType = CacheableSqlMapper.class;
+      Method mapperMethod = mapperType.getMethod("keyMethodNotFound", Integer.class);
+      new ProviderSqlSource(new Configuration(),
+            mapperMethod.getAnnotation(SelectProvider.class), mapperType, mapperMethod);
+      fail();
+    } catch (BuilderException e) {
+      assertTrue(e.getMessage().contains("Error creating SqlSource for SqlProvider. Cache key method 'cacheKey' not found in SqlProvider 'org.apache.ibatis.submitted.sqlprovider.SqlProviderTest$CacheableSqlMapper$SqlProvider'. It must take the same arguments as the method 'keyMethodNotFound'."));
+    }
+  }
+
+  public interface CacheableSqlMapper {
+    @SelectProvider(type = SqlProvider.class, method = "selectColumnByProperty")
+    String selectColumnByProperty(@Param("id") Integer id, @Param("column") String column);
+
+    @SelectProvider(type = SqlProvider.class, method = "selectColumnByKeyMethod")
+    String selectColumnByKeyMethod(@Param("id") Integer id, @Param("column") String column);
+
+    @SelectProvider(type = SqlProvider.class, method = "keyMethodNotFound")
+    String keyMethodNotFound(Integer id);
+
+    @SuppressWarnings("unused")
+    class SqlProvider {
+      static final AtomicInteger propertyInvocations = new AtomicInteger();
+      static final AtomicInteger keyMethodInvocations = new AtomicInteger();
+
+      @CacheableSql(properties = "column")
+      public static String selectColumnByProperty(@Param("id") Integer id, @Param("column") String column) {
+        propertyInvocations.incrementAndGet();
+        return "SELECT " + column + " FROM users WHERE id = #{id}";
+      }
+
+      @CacheableSql(keyMethod = "cacheKey")
+      public static String selectColumnByKeyMethod(@Param("id") Integer id, @Param("column") String column) {
+        keyMethodInvocations.incrementAndGet();
+        return "SELECT " + column + " FROM users WHERE id = #{id}";
+      }
+
+      public static Object cacheKey(@Param("id") Integer id, @Param("column") String column) {
+        return "name".equals(column) ? column : null;
+      }
+
+      @CacheableSql(keyMethod = "cacheKey")
+      public static String keyMethodNotFound(Integer id) {
+        throw new UnsupportedOperationException("keyMethodNotFound");
+      }
+    }
+  }
+
 }
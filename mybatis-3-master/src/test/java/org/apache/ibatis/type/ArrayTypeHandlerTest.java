@@ -19,9 +19,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
 import java.sql.Array;
+import java.sql.Connection;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +42,55 @@ class ArrayTypeHandlerTest extends BaseTypeHandlerTest {
     verify(ps).setArray(1, mockArray);
   }
 
+  @Test
+  void shouldSetJavaArrayParameter() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+    when(connection.createArrayOf("VARCHAR", new Object[]{"a", "b"})).thenReturn(mockArray);
+    TYPE_HANDLER.setParameter(ps, 1, new String[]{"a", "b"}, null);
+    verify(ps).setArray(1, mockArray);
+    verify(mockArray).free();
+  }
+
+  @Test
+  void shouldSetPrimitiveAndObjectArrayParameters() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+    when(connection.createArrayOf("INTEGER", new Object[]{1, 2})).thenReturn(mockArray);
+    when(connection.createArrayOf("BIGINT", new Object[]{null, 3L})).thenReturn(mockArray);
+    TYPE_HANDLER.setParameter(ps, 1, new int[]{1, 2}, null);
+    TYPE_HANDLER.setParameter(ps, 2, new Object[]{null, 3L}, null);
+    verify(ps).setArray(1, mockArray);
+    verify(ps).setArray(2, mockArray);
+  }
+
+  @Test
+  void shouldSetEmptyAndAllNullArraysWithTheJdbcTypeOfTheElements() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+    when(connection.createArrayOf("INTEGER", new Object[0])).thenReturn(mockArray);
+    when(connection.createArrayOf("INTEGER", new Object[]{null, null})).thenReturn(mockArray);
+    TYPE_HANDLER.setParameter(ps, 1, new Object[0], JdbcType.INTEGER);
+    TYPE_HANDLER.setParameter(ps, 2, new Object[]{null, null}, JdbcType.INTEGER);
+    verify(ps).setArray(1, mockArray);
+    verify(ps).setArray(2, mockArray);
+  }
+
+  @Test
+  void shouldResolveTypeNameOfEmptyAndAllNullArrays() {
+    ArrayTypeHandler handler = new ArrayTypeHandler();
+    assertEquals("INTEGER", handler.resolveTypeName(Object.class, new Object[0], JdbcType.INTEGER));
+    assertEquals("VARCHAR", handler.resolveTypeName(Object.class, new Object[]{null, null}, JdbcType.VARCHAR));
+    assertEquals("BIGINT", handler.resolveTypeName(Object.class, new Object[]{null, 1L}, JdbcType.INTEGER));
+    assertThrows(TypeException.class, () -> handler.resolveTypeName(Object.class, new Object[0], null));
+    assertThrows(TypeException.class, () -> handler.resolveTypeName(Object.class, new Object[]{null}, JdbcType.ARRAY));
+  }
+
+  @Test
+  void shouldFailWhenParameterIsNotAnArray() {
+    assertThrows(TypeException.class, () -> TYPE_HANDLER.setParameter(ps, 1, "a", null));
+  }
+
   @Override
   @Test
   public void shouldGetResultFromResultSetByName() throws Exception {
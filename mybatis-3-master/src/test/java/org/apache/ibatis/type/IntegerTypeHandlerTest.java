@@ -87,4 +87,14 @@ class IntegerTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
-}
\ No newline at end of file
+  @Test
+  void shouldGetPrimitiveFromResultSet() throws Exception {
+    IntColumnReader reader = (IntColumnReader) TYPE_HANDLER;
+    when(rs.getInt("column")).thenReturn(100);
+    assertEquals(100, reader.getInt(rs, "column"));
+
+    when(rs.getInt(1)).thenReturn(100);
+    assertEquals(100, reader.getInt(rs, 1));
+  }
+
+}
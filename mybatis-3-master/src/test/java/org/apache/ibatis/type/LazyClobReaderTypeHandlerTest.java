@@ -0,0 +1,115 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Clob;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+class LazyClobReaderTypeHandlerTest extends BaseTypeHandlerTest {
+
+  private static final TypeHandler<Reader> TYPE_HANDLER = new LazyClobReaderTypeHandler();
+
+  @Mock
+  protected Clob clob;
+
+  @Override
+  @Test
+  public void shouldSetParameter() throws Exception {
+    Reader reader = new StringReader("Hello");
+    TYPE_HANDLER.setParameter(ps, 1, reader, null);
+    verify(ps).setClob(1, reader);
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByName() throws Exception {
+    when(rs.getClob("column")).thenReturn(clob);
+    Reader reader = TYPE_HANDLER.getResult(rs, "column");
+    verify(clob, never()).getCharacterStream();
+    when(clob.getCharacterStream()).thenReturn(new StringReader("Hello"));
+    assertEquals("Hello", read(reader));
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByName() throws Exception {
+    when(rs.getClob("column")).thenReturn(null);
+    assertNull(TYPE_HANDLER.getResult(rs, "column"));
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByPosition() throws Exception {
+    when(rs.getClob(1)).thenReturn(clob);
+    when(clob.getCharacterStream()).thenReturn(new StringReader("Hello"));
+    assertEquals("Hello", read(TYPE_HANDLER.getResult(rs, 1)));
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByPosition() throws Exception {
+    when(rs.getClob(1)).thenReturn(null);
+    assertNull(TYPE_HANDLER.getResult(rs, 1));
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromCallableStatement() throws Exception {
+    when(cs.getClob(1)).thenReturn(clob);
+    when(clob.getCharacterStream()).thenReturn(new StringReader("Hello"));
+    assertEquals("Hello", read(TYPE_HANDLER.getResult(cs, 1)));
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromCallableStatement() throws Exception {
+    when(cs.getClob(1)).thenReturn(null);
+    assertNull(TYPE_HANDLER.getResult(cs, 1));
+  }
+
+  @Test
+  void shouldFreeClobWhenReaderIsClosed() throws Exception {
+    when(rs.getClob(1)).thenReturn(clob);
+    Reader reader = TYPE_HANDLER.getResult(rs, 1);
+    reader.close();
+    reader.close();
+    verify(clob, never()).getCharacterStream();
+    verify(clob, times(1)).free();
+  }
+
+  private static String read(Reader reader) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    char[] buffer = new char[16];
+    int n;
+    while ((n = reader.read(buffer)) != -1) {
+      sb.append(buffer, 0, n);
+    }
+    return sb.toString();
+  }
+
+}
@@ -87,4 +87,14 @@ class LongTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
-}
\ No newline at end of file
+  @Test
+  void shouldGetPrimitiveFromResultSet() throws Exception {
+    LongColumnReader reader = (LongColumnReader) TYPE_HANDLER;
+    when(rs.getLong("column")).thenReturn(100L);
+    assertEquals(100L, reader.getLong(rs, "column"));
+
+    when(rs.getLong(1)).thenReturn(100L);
+    assertEquals(100L, reader.getLong(rs, 1));
+  }
+
+}
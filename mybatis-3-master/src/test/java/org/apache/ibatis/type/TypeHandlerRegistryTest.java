@@ -215,4 +215,18 @@ class TypeHandlerRegistryTest {
     typeHandlerRegistry.register(Address.class, StringTypeHandler.class);
     assertTrue(typeHandlerRegistry.hasTypeHandler(Address.class));
   }
+
+  @Test
+  void shouldResolveAgainAfterRegistering() {
+    class MyDate extends Date {
+      private static final long serialVersionUID = 1L;
+    }
+    assertSame(typeHandlerRegistry.getTypeHandler(MyDate.class, JdbcType.DATE), typeHandlerRegistry.getTypeHandler(MyDate.class, JdbcType.DATE));
+    assertFalse(typeHandlerRegistry.hasTypeHandler(RichType.class, JdbcType.VARCHAR));
+    typeHandlerRegistry.register(Date.class, JdbcType.DATE, DateOnlyTypeHandler.class);
+    typeHandlerRegistry.register(RichType.class, JdbcType.VARCHAR, StringTypeHandler.class);
+    assertSame(DateOnlyTypeHandler.class, typeHandlerRegistry.getTypeHandler(MyDate.class, JdbcType.DATE).getClass());
+    assertSame(DateTypeHandler.class, typeHandlerRegistry.getTypeHandler(MyDate.class, JdbcType.TIMESTAMP).getClass());
+    assertTrue(typeHandlerRegistry.hasTypeHandler(RichType.class, JdbcType.VARCHAR));
+  }
 }